@@ -1,5 +1,8 @@
 package com.example.quiz.config;
 
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManager;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.web.client.RestTemplate;
@@ -7,8 +10,19 @@ import org.springframework.web.client.RestTemplate;
 @Configuration
 public class AIConfig {
 
+    // Separate from the service pool: generation calls are slow and must not hold its connections
+    @Bean(destroyMethod = "close")
+    public PoolingHttpClientConnectionManager aiConnectionManager(
+            @Value("${app.http.ai.max-connections:20}") int maxConnections,
+            @Value("${app.http.connect-timeout-ms:2000}") long connectTimeoutMillis,
+            @Value("${app.http.ai.read-timeout-ms:60000}") long readTimeoutMillis) {
+        return RestTemplateConfig.connectionManager(maxConnections, maxConnections, connectTimeoutMillis, readTimeoutMillis);
+    }
+
     @Bean("aiRestTemplate")
-    public RestTemplate aiRestTemplate() {
-        return new RestTemplate();
+    public RestTemplate aiRestTemplate(@Qualifier("aiConnectionManager") PoolingHttpClientConnectionManager connectionManager,
+                                       @Value("${app.http.lease-timeout-ms:1000}") long leaseTimeoutMillis,
+                                       @Value("${app.http.keep-alive-ms:30000}") long keepAliveMillis) {
+        return new RestTemplate(RestTemplateConfig.requestFactory(connectionManager, leaseTimeoutMillis, keepAliveMillis));
     }
-}
\ No newline at end of file
+}
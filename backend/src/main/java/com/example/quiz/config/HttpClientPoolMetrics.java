@@ -0,0 +1,74 @@
+package com.example.quiz.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.MultiGauge;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.binder.httpcomponents.hc5.PoolingHttpClientConnectionManagerMetricsBinder;
+import org.apache.hc.client5.http.HttpRoute;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManager;
+import org.apache.hc.core5.http.HttpHost;
+import org.apache.hc.core5.pool.PoolStats;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.client.discovery.DiscoveryClient;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Connection pool usage for calls to the other services. Totals come from Micrometer's binder
+ * ({@code httpcomponents.httpclient.pool.*}, tagged {@code httpclient=services}); the per-service
+ * gauges {@code http.client.pool.connections{service,state}} are recomputed every
+ * {@code app.http.metrics-refresh-ms}, mapping each pooled route back to its Eureka service id.
+ */
+@Component
+public class HttpClientPoolMetrics {
+    private final PoolingHttpClientConnectionManager connectionManager;
+    private final DiscoveryClient discoveryClient;
+    private final MultiGauge connections;
+
+    public HttpClientPoolMetrics(@Qualifier("serviceConnectionManager") PoolingHttpClientConnectionManager connectionManager,
+                                 DiscoveryClient discoveryClient,
+                                 MeterRegistry meterRegistry) {
+        this.connectionManager = connectionManager;
+        this.discoveryClient = discoveryClient;
+        new PoolingHttpClientConnectionManagerMetricsBinder(connectionManager, "services").bindTo(meterRegistry);
+        this.connections = MultiGauge.builder("http.client.pool.connections")
+            .description("Pooled connections to each service: leased, available, or requests waiting for one (pending)")
+            .register(meterRegistry);
+    }
+
+    @Scheduled(fixedDelayString = "${app.http.metrics-refresh-ms:10000}")
+    public void refresh() {
+        Map<String, String> serviceByAddress = new HashMap<>();
+        for (String serviceId : discoveryClient.getServices()) {
+            for (ServiceInstance instance : discoveryClient.getInstances(serviceId)) {
+                serviceByAddress.put(instance.getHost() + ":" + instance.getPort(), serviceId);
+            }
+        }
+
+        // A service with several instances has one route per instance; report their sum
+        Map<String, int[]> byService = new HashMap<>();
+        for (HttpRoute route : connectionManager.getRoutes()) {
+            HttpHost target = route.getTargetHost();
+            String address = target.getHostName() + ":" + target.getPort();
+            PoolStats stats = connectionManager.getStats(route);
+            int[] totals = byService.computeIfAbsent(serviceByAddress.getOrDefault(address, address), k -> new int[3]);
+            totals[0] += stats.getLeased();
+            totals[1] += stats.getAvailable();
+            totals[2] += stats.getPending();
+        }
+
+        List<MultiGauge.Row<?>> rows = new ArrayList<>();
+        byService.forEach((service, totals) -> {
+            rows.add(MultiGauge.Row.of(Tags.of("service", service, "state", "leased"), totals[0]));
+            rows.add(MultiGauge.Row.of(Tags.of("service", service, "state", "available"), totals[1]));
+            rows.add(MultiGauge.Row.of(Tags.of("service", service, "state", "pending"), totals[2]));
+        });
+        connections.register(rows, true);
+    }
+}
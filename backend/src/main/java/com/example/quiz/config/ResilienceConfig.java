@@ -0,0 +1,70 @@
+package com.example.quiz.config;
+
+import com.example.quiz.microservices.impl.ServiceCallGuard;
+import io.github.resilience4j.bulkhead.BulkheadConfig;
+import io.github.resilience4j.bulkhead.ThreadPoolBulkheadConfig;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerConfig;
+import io.github.resilience4j.timelimiter.TimeLimiterConfig;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cloud.circuitbreaker.resilience4j.Resilience4JCircuitBreakerFactory;
+import org.springframework.cloud.circuitbreaker.resilience4j.Resilience4JConfigBuilder;
+import org.springframework.cloud.circuitbreaker.resilience4j.Resilience4jBulkheadConfigurationBuilder;
+import org.springframework.cloud.circuitbreaker.resilience4j.Resilience4jBulkheadProvider;
+import org.springframework.cloud.client.circuitbreaker.Customizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.client.HttpClientErrorException;
+
+import java.time.Duration;
+
+/**
+ * Circuit breaker, time limit and bulkhead applied to each service the backend calls (one instance
+ * per service id). Calls run on the bulkhead's own threads, so a slow dependency can occupy at most
+ * {@code app.resilience.max-concurrent} of them, and request threads wait at most
+ * {@code app.resilience.timeout-ms}. Writes use separate instances (ids ending in
+ * {@link ServiceCallGuard#WRITE_SUFFIX}) limited by {@code app.resilience.write-timeout-ms}, which
+ * must exceed the HTTP client's lease, connect and read timeouts combined.
+ */
+@Configuration
+public class ResilienceConfig {
+
+    @Bean
+    public Customizer<Resilience4JCircuitBreakerFactory> defaultCustomizer(
+            @Value("${app.resilience.timeout-ms:3000}") long timeoutMillis,
+            @Value("${app.resilience.write-timeout-ms:10000}") long writeTimeoutMillis,
+            @Value("${app.resilience.sliding-window:20}") int slidingWindow,
+            @Value("${app.resilience.failure-rate:50}") float failureRate,
+            @Value("${app.resilience.open-ms:5000}") long openMillis) {
+        return factory -> factory.configureDefault(id -> new Resilience4JConfigBuilder(id)
+                .circuitBreakerConfig(CircuitBreakerConfig.custom()
+                        .slidingWindowSize(slidingWindow)
+                        .permittedNumberOfCallsInHalfOpenState(2)
+                        .failureRateThreshold(failureRate)
+                        .waitDurationInOpenState(Duration.ofMillis(openMillis))
+                        // A 4xx is the caller's problem, not a sign the service is unhealthy
+                        .ignoreExceptions(HttpClientErrorException.class)
+                        .build())
+                .timeLimiterConfig(TimeLimiterConfig.custom()
+                        .timeoutDuration(Duration.ofMillis(
+                                id.endsWith(ServiceCallGuard.WRITE_SUFFIX) ? writeTimeoutMillis : timeoutMillis))
+                        .build())
+                .build());
+    }
+
+    @Bean
+    public Customizer<Resilience4jBulkheadProvider> defaultBulkheadCustomizer(
+            @Value("${app.resilience.max-concurrent:20}") int maxConcurrent,
+            @Value("${app.resilience.queue-capacity:20}") int queueCapacity) {
+        return provider -> provider.configureDefault(id -> new Resilience4jBulkheadConfigurationBuilder()
+                .threadPoolBulkheadConfig(ThreadPoolBulkheadConfig.custom()
+                        .coreThreadPoolSize(maxConcurrent)
+                        .maxThreadPoolSize(maxConcurrent)
+                        .queueCapacity(queueCapacity)
+                        .build())
+                .bulkheadConfig(BulkheadConfig.custom()
+                        .maxConcurrentCalls(maxConcurrent)
+                        .maxWaitDuration(Duration.ZERO)
+                        .build())
+                .build());
+    }
+}
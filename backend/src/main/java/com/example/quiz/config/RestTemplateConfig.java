@@ -1,21 +1,83 @@
 package com.example.quiz.config;
 
+import org.apache.hc.client5.http.config.ConnectionConfig;
+import org.apache.hc.client5.http.config.RequestConfig;
+import org.apache.hc.client5.http.impl.classic.HttpClients;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManager;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManagerBuilder;
+import org.apache.hc.core5.util.TimeValue;
+import org.apache.hc.core5.util.Timeout;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.cloud.client.loadbalancer.LoadBalanced;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.client.ClientHttpRequestFactory;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
 import org.springframework.web.client.RestTemplate;
 
+/**
+ * Calls to the other services go through one pool of persistent connections, capped per route
+ * (one route per service instance) so a slow instance cannot take every connection. Connects,
+ * reads and waits for a pooled connection all have explicit timeouts.
+ */
 @Configuration
 public class RestTemplateConfig {
 
+    @Bean(destroyMethod = "close")
+    public PoolingHttpClientConnectionManager serviceConnectionManager(
+            @Value("${app.http.max-total:200}") int maxTotal,
+            @Value("${app.http.max-per-route:50}") int maxPerRoute,
+            @Value("${app.http.connect-timeout-ms:2000}") long connectTimeoutMillis,
+            @Value("${app.http.read-timeout-ms:5000}") long readTimeoutMillis) {
+        return connectionManager(maxTotal, maxPerRoute, connectTimeoutMillis, readTimeoutMillis);
+    }
+
     @Bean("generalRestTemplate")
-    public RestTemplate generalRestTemplate() {
-        return new RestTemplate();
+    public RestTemplate generalRestTemplate(@Qualifier("serviceConnectionManager") PoolingHttpClientConnectionManager connectionManager,
+                                            @Value("${app.http.lease-timeout-ms:1000}") long leaseTimeoutMillis,
+                                            @Value("${app.http.keep-alive-ms:30000}") long keepAliveMillis) {
+        return new RestTemplate(requestFactory(connectionManager, leaseTimeoutMillis, keepAliveMillis));
     }
 
     @Bean("loadBalancedRestTemplate")
     @LoadBalanced
-    public RestTemplate loadBalancedRestTemplate() {
-        return new RestTemplate();
+    public RestTemplate loadBalancedRestTemplate(@Qualifier("serviceConnectionManager") PoolingHttpClientConnectionManager connectionManager,
+                                                 @Value("${app.http.lease-timeout-ms:1000}") long leaseTimeoutMillis,
+                                                 @Value("${app.http.keep-alive-ms:30000}") long keepAliveMillis) {
+        return new RestTemplate(requestFactory(connectionManager, leaseTimeoutMillis, keepAliveMillis));
+    }
+
+    static PoolingHttpClientConnectionManager connectionManager(int maxTotal, int maxPerRoute,
+                                                                long connectTimeoutMillis, long readTimeoutMillis) {
+        return PoolingHttpClientConnectionManagerBuilder.create()
+            .setMaxConnTotal(maxTotal)
+            .setMaxConnPerRoute(maxPerRoute)
+            .setDefaultConnectionConfig(ConnectionConfig.custom()
+                .setConnectTimeout(Timeout.ofMilliseconds(connectTimeoutMillis))
+                .setSocketTimeout(Timeout.ofMilliseconds(readTimeoutMillis))
+                // Re-check a connection that sat idle this long before reusing it
+                .setValidateAfterInactivity(TimeValue.ofSeconds(2))
+                .build())
+            .build();
+    }
+
+    /**
+     * A client over the given pool. Connections are kept alive for {@code keepAliveMillis} unless
+     * the server asks for less, and idle ones are closed in the background after that long.
+     */
+    static ClientHttpRequestFactory requestFactory(PoolingHttpClientConnectionManager connectionManager,
+                                                   long leaseTimeoutMillis, long keepAliveMillis) {
+        return new HttpComponentsClientHttpRequestFactory(HttpClients.custom()
+            .setConnectionManager(connectionManager)
+            // The pool is a bean shared by several clients; Spring closes it
+            .setConnectionManagerShared(true)
+            .setDefaultRequestConfig(RequestConfig.custom()
+                .setConnectionRequestTimeout(Timeout.ofMilliseconds(leaseTimeoutMillis))
+                .setConnectionKeepAlive(TimeValue.ofMilliseconds(keepAliveMillis))
+                .build())
+            .evictExpiredConnections()
+            .evictIdleConnections(TimeValue.ofMilliseconds(keepAliveMillis))
+            .build());
     }
 }
@@ -0,0 +1,62 @@
+package com.example.quiz.domain;
+
+import com.example.quiz.repo.AttemptView;
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.Instant;
+
+/**
+ * Outbox row written in the same transaction as its attempt (or the attempt's deletion); relayed to
+ * result-service and deleted once delivered.
+ */
+@Entity
+@Table(name = "attempt_outbox")
+@Getter
+@Setter
+@NoArgsConstructor
+public class AttemptOutboxEvent {
+    @Id @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    private Long attemptId;
+
+    private Long studentId;
+
+    private String studentName;
+
+    private Long quizId;
+
+    private int score;
+
+    private Instant createdAt;
+
+    // The attempt was deleted; the other fields describe it so result-service can take it back out
+    @Column(nullable = false, columnDefinition = "boolean not null default false")
+    private boolean deleted;
+
+    public static AttemptOutboxEvent of(Attempt attempt) {
+        AttemptOutboxEvent event = new AttemptOutboxEvent();
+        event.setAttemptId(attempt.getId());
+        event.setStudentId(attempt.getStudent().getId());
+        event.setStudentName(attempt.getStudent().getName());
+        event.setQuizId(attempt.getQuiz().getId());
+        event.setScore(attempt.getScore());
+        event.setCreatedAt(attempt.getCreatedAt());
+        return event;
+    }
+
+    public static AttemptOutboxEvent deletionOf(AttemptView attempt) {
+        AttemptOutboxEvent event = new AttemptOutboxEvent();
+        event.setAttemptId(attempt.id());
+        event.setStudentId(attempt.studentId());
+        event.setStudentName(attempt.studentName());
+        event.setQuizId(attempt.quizId());
+        event.setScore(attempt.score());
+        event.setCreatedAt(attempt.createdAt());
+        event.setDeleted(true);
+        return event;
+    }
+}
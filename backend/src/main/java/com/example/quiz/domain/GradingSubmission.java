@@ -0,0 +1,57 @@
+package com.example.quiz.domain;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.Instant;
+
+/**
+ * An asynchronously graded submission, persisted before it is acknowledged so any backend instance
+ * can report on it and a submission left pending by a stopped instance is picked up by another.
+ * Deleted once finished and older than the receipt TTL; pending submissions are never swept.
+ */
+@Entity
+@Table(name = "grading_submission", indexes = {
+        @Index(name = "idx_grading_submission_status_claimed", columnList = "status, claimedAt"),
+        @Index(name = "idx_grading_submission_submitted", columnList = "submittedAt")
+})
+@Getter
+@Setter
+@NoArgsConstructor
+public class GradingSubmission {
+    public enum Status { PENDING, COMPLETED, FAILED }
+
+    @Id
+    @Column(length = 36)
+    private String id;
+
+    @Column(nullable = false)
+    private Long studentId;
+
+    private String studentName;
+
+    @Column(nullable = false)
+    private Long quizId;
+
+    // JSON array of option indexes, one per question
+    @Column(nullable = false, columnDefinition = "text")
+    private String answers;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 16)
+    private Status status = Status.PENDING;
+
+    private Long attemptId;
+
+    @Column(length = 500)
+    private String error;
+
+    @Column(nullable = false)
+    private Instant submittedAt;
+
+    // When an instance last took the submission on; a stale claim means that instance went away
+    @Column(nullable = false)
+    private Instant claimedAt;
+}
@@ -7,6 +7,7 @@ import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
 
+import java.util.ArrayList;
 import java.util.List;
 
 @Entity
@@ -21,18 +22,28 @@ public class Question {
     @NotBlank
     private String text;
 
+    // Order within the quiz; null for rows saved before it existed, which then fall back to id order
+    @JsonIgnore
+    private Integer position;
+
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "quiz_id")
     @JsonIgnore
     private Quiz quiz;
 
-    @ElementCollection
+    @Convert(converter = OptionsConverter.class)
+    @Column(name = "options_json", columnDefinition = "json")
+    private List<QuestionOption> options;
+
+    // Options as stored before options_json existed; only read by QuestionOptionsMigration
+    @ElementCollection(fetch = FetchType.LAZY)
     @CollectionTable(name = "question_options", joinColumns = @JoinColumn(name = "question_id"))
     @AttributeOverrides({
         @AttributeOverride(name = "text", column = @Column(name = "option_text")),
         @AttributeOverride(name = "correct", column = @Column(name = "is_correct"))
     })
-    private List<QuestionOption> options;
+    @JsonIgnore
+    private List<QuestionOption> legacyOptions = new ArrayList<>();
 
     @Embeddable
     @Getter
@@ -50,4 +61,11 @@ public class Question {
             this.correct = correct;
         }
     }
+
+    @Converter
+    public static class OptionsConverter extends OptionsJsonConverter<QuestionOption> {
+        public OptionsConverter() {
+            super(QuestionOption.class);
+        }
+    }
 }
@@ -23,6 +23,11 @@ public class Quiz {
     @Enumerated(EnumType.STRING)
     private Difficulty difficulty;
 
+    // Bumped whenever the questions change; caches on every node compare against it
+    @Column(nullable = false, columnDefinition = "bigint not null default 0")
+    @JsonIgnore
+    private long version;
+
     @OneToMany(mappedBy = "quiz", cascade = CascadeType.ALL, fetch = FetchType.LAZY)
     @JsonIgnore
     private List<Question> questions;
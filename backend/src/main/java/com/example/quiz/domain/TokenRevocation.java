@@ -0,0 +1,33 @@
+package com.example.quiz.domain;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.Instant;
+
+/** A revoked token, shared between backend instances; purged once the token has expired. */
+@Entity
+@Table(name = "token_revocation", indexes = @Index(name = "idx_token_revocation_expires", columnList = "expiresAt"))
+@Getter
+@Setter
+@NoArgsConstructor
+public class TokenRevocation {
+    @Id @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false, length = 64)
+    private String tokenId;
+
+    @Column(nullable = false)
+    private Instant expiresAt;
+
+    @Column(nullable = false)
+    private Instant createdAt = Instant.now();
+
+    public TokenRevocation(String tokenId, Instant expiresAt) {
+        this.tokenId = tokenId;
+        this.expiresAt = expiresAt;
+    }
+}
@@ -1,5 +1,6 @@
 package com.example.quiz.domain;
 
+import com.example.quiz.service.SessionUserEvictionListener;
 import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.Email;
@@ -11,6 +12,7 @@ import lombok.Setter;
 import java.util.List;
 
 @Entity
+@EntityListeners(SessionUserEvictionListener.class)
 @Table(name = "users", uniqueConstraints = {@UniqueConstraint(columnNames = "email")})
 @Getter
 @Setter
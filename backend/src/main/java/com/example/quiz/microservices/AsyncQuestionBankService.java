@@ -0,0 +1,17 @@
+package com.example.quiz.microservices;
+
+import com.example.quiz.domain.BankQuestion;
+import com.example.quiz.domain.QuestionBank;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+
+/** Asynchronous reads from question-bank-service, for callers that issue several calls at once. */
+public interface AsyncQuestionBankService {
+    CompletableFuture<List<QuestionBank>> getAllQuestionBanks();
+
+    CompletableFuture<Optional<QuestionBank>> getQuestionBankById(Long id);
+
+    CompletableFuture<List<BankQuestion>> getQuestionsByBankId(Long bankId);
+}
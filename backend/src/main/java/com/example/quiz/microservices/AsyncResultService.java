@@ -0,0 +1,16 @@
+package com.example.quiz.microservices;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+/** Asynchronous reads from result-service, for callers that issue several calls at once. */
+public interface AsyncResultService {
+    CompletableFuture<Map<String, Object>> getStudentResults(Long studentId);
+
+    CompletableFuture<Map<String, Object>> getQuizStatistics(Long quizId);
+
+    CompletableFuture<Map<String, Object>> getQuizDistribution(Long quizId);
+
+    CompletableFuture<List<Map<String, Object>>> getLeaderboard();
+}
@@ -0,0 +1,14 @@
+package com.example.quiz.microservices;
+
+import com.example.quiz.domain.AttemptOutboxEvent;
+
+import java.time.Instant;
+
+/** Wire format of an attempt, or an attempt's deletion, pushed to result-service. */
+public record AttemptEvent(Long attemptId, Long studentId, String studentName, Long quizId, int score, Instant createdAt,
+                           boolean deleted) {
+    public static AttemptEvent from(AttemptOutboxEvent event) {
+        return new AttemptEvent(event.getAttemptId(), event.getStudentId(), event.getStudentName(),
+            event.getQuizId(), event.getScore(), event.getCreatedAt(), event.isDeleted());
+    }
+}
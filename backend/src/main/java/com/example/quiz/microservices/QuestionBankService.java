@@ -24,4 +24,7 @@ public interface QuestionBankService {
     QuestionBank saveQuestionBankWithQuestions(QuestionBank questionBank);
 
     void deleteQuestionBank(Long id);
+
+    /** Version stamp of the whole catalog; it changes whenever any bank is created, updated or deleted. */
+    long getCatalogVersion();
 }
\ No newline at end of file
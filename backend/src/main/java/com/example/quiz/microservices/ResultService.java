@@ -10,5 +10,7 @@ public interface ResultService {
 
     Map<String, Object> getQuizStatistics(Long quizId);
 
+    Map<String, Object> getQuizDistribution(Long quizId);
+
     List<Map<String, Object>> getLeaderboard();
 }
\ No newline at end of file
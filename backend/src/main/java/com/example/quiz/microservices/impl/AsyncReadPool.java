@@ -0,0 +1,59 @@
+package com.example.quiz.microservices.impl;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Runs the blocking service clients for the async interfaces, so those calls get the same
+ * coalescing, caching, breakers and stale fallback as every other read. The pool and its queue are
+ * bounded ({@code app.async-reads.*}); a call that finds both full fails at once rather than
+ * queueing behind a burst, and is counted in {@code service.client.async.rejections}.
+ */
+@Component
+@ConditionalOnProperty(name = "microservices.mode", havingValue = "eureka")
+public class AsyncReadPool {
+    private final ThreadPoolExecutor workers;
+    private final Counter rejections;
+
+    public AsyncReadPool(MeterRegistry meterRegistry,
+                         @Value("${app.async-reads.workers:16}") int workerCount,
+                         @Value("${app.async-reads.queue-capacity:64}") int queueCapacity) {
+        AtomicInteger threadIndex = new AtomicInteger();
+        this.workers = new ThreadPoolExecutor(workerCount, workerCount, 0L, TimeUnit.MILLISECONDS,
+            new ArrayBlockingQueue<>(queueCapacity),
+            r -> Thread.ofPlatform().name("async-read-" + threadIndex.incrementAndGet()).daemon(true).unstarted(r),
+            new ThreadPoolExecutor.AbortPolicy());
+        this.rejections = Counter.builder("service.client.async.rejections")
+            .description("Async reads refused because the pool queue was full")
+            .register(meterRegistry);
+        Gauge.builder("service.client.async.queue.depth", workers, e -> e.getQueue().size()).register(meterRegistry);
+        Gauge.builder("service.client.async.active", workers, ThreadPoolExecutor::getActiveCount).register(meterRegistry);
+    }
+
+    public <T> CompletableFuture<T> supply(Supplier<T> call) {
+        try {
+            return CompletableFuture.supplyAsync(call, workers);
+        } catch (RejectedExecutionException e) {
+            rejections.increment();
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        workers.shutdownNow();
+    }
+}
@@ -0,0 +1,95 @@
+package com.example.quiz.microservices.impl;
+
+import com.example.quiz.domain.AttemptOutboxEvent;
+import com.example.quiz.microservices.AttemptEvent;
+import com.example.quiz.repo.AttemptOutboxRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.client.discovery.DiscoveryClient;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.RestClientException;
+import org.springframework.web.client.RestTemplate;
+
+import java.util.List;
+
+/**
+ * Pushes outbox rows to result-service in id order and deletes them once acknowledged. Each batch
+ * goes to every registered result-service instance, since each keeps its own in-memory indexes;
+ * rows are deleted once at least one instance has stored them, and an instance that missed the
+ * batch catches up from the shared read model. Delivery is at-least-once; result-service ignores
+ * events it has already applied.
+ *
+ * <p>The endpoint is internal (not routed by the gateway) and requires the shared service token.
+ */
+@Component
+@Slf4j
+@ConditionalOnProperty(name = "microservices.mode", havingValue = "eureka")
+public class AttemptOutboxRelay {
+    static final String TOKEN_HEADER = "X-Service-Token";
+    private static final String SERVICE = "result-service";
+
+    private final AttemptOutboxRepository outboxRepository;
+    private final DiscoveryClient discoveryClient;
+    private final RestTemplate restTemplate;
+    private final String serviceToken;
+    private final int batchSize;
+
+    public AttemptOutboxRelay(AttemptOutboxRepository outboxRepository,
+                              DiscoveryClient discoveryClient,
+                              @Qualifier("generalRestTemplate") RestTemplate restTemplate,
+                              @Value("${app.outbox.service-token}") String serviceToken,
+                              @Value("${app.outbox.batch-size:500}") int batchSize) {
+        this.outboxRepository = outboxRepository;
+        this.discoveryClient = discoveryClient;
+        this.restTemplate = restTemplate;
+        this.serviceToken = serviceToken;
+        this.batchSize = batchSize;
+    }
+
+    @Scheduled(fixedDelayString = "${app.outbox.relay-ms:500}")
+    public void relay() {
+        List<AttemptOutboxEvent> batch;
+        do {
+            batch = outboxRepository.findByOrderByIdAsc(PageRequest.ofSize(batchSize));
+            if (batch.isEmpty()) {
+                return;
+            }
+            if (!deliver(batch.stream().map(AttemptEvent::from).toList())) {
+                return;
+            }
+            outboxRepository.deleteAllByIdInBatch(batch.stream().map(AttemptOutboxEvent::getId).toList());
+        } while (batch.size() == batchSize);
+    }
+
+    /** Sends the events to every instance; returns whether at least one of them stored them. */
+    private boolean deliver(List<AttemptEvent> events) {
+        List<ServiceInstance> instances = discoveryClient.getInstances(SERVICE);
+        if (instances.isEmpty()) {
+            log.debug("No {} instance registered, holding {} attempt events", SERVICE, events.size());
+            return false;
+        }
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.APPLICATION_JSON);
+        headers.set(TOKEN_HEADER, serviceToken);
+        HttpEntity<List<AttemptEvent>> request = new HttpEntity<>(events, headers);
+
+        boolean stored = false;
+        for (ServiceInstance instance : instances) {
+            try {
+                restTemplate.postForEntity(instance.getUri().resolve("/internal/results/events"), request, Void.class);
+                stored = true;
+            } catch (RestClientException e) {
+                log.warn("Relaying {} attempt events to {} at {} failed: {}", events.size(), SERVICE, instance.getUri(), e.getMessage());
+            }
+        }
+        return stored;
+    }
+}
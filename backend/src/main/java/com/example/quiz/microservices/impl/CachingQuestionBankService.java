@@ -0,0 +1,173 @@
+package com.example.quiz.microservices.impl;
+
+import com.example.quiz.domain.BankQuestion;
+import com.example.quiz.domain.QuestionBank;
+import com.example.quiz.microservices.QuestionBankService;
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.web.client.RestClientException;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Read-through cache in front of question-bank-service. Responses are kept serialised, so the cache
+ * is bounded by bytes ({@code app.question-banks.cache-bytes}) and every caller gets its own copy.
+ *
+ * <p>Changes made through this node drop the cache at once. Changes made elsewhere are noticed by
+ * polling the service's catalog version every {@code app.question-banks.version-poll-ms}. Entries
+ * are keyed by a local generation that moves on every invalidation, so a read that raced with one
+ * can never be served afterwards. Hits, misses and evictions are under {@code cache.*{cache=questionBanks}}.
+ */
+@Service("questionBankMicroservice")
+@Slf4j
+@ConditionalOnProperty(name = "microservices.mode", havingValue = "eureka")
+public class CachingQuestionBankService implements QuestionBankService {
+    private final QuestionBankService delegate;
+    private final ObjectMapper objectMapper;
+    private final Cache<String, byte[]> responses;
+    private final AtomicLong generation = new AtomicLong();
+    private final JavaType bankList;
+    private final JavaType questionList;
+
+    private volatile long catalogVersion = -1;
+
+    public CachingQuestionBankService(@Qualifier("eurekaQuestionBankService") QuestionBankService delegate,
+                                      ObjectMapper objectMapper,
+                                      MeterRegistry meterRegistry,
+                                      @Value("${app.question-banks.cache-bytes:33554432}") long maxBytes) {
+        this.delegate = delegate;
+        this.objectMapper = objectMapper;
+        this.responses = Caffeine.newBuilder()
+            .maximumWeight(maxBytes)
+            .weigher((String key, byte[] body) -> body.length)
+            .recordStats()
+            .build();
+        this.bankList = objectMapper.getTypeFactory().constructCollectionType(List.class, QuestionBank.class);
+        this.questionList = objectMapper.getTypeFactory().constructCollectionType(List.class, BankQuestion.class);
+        CaffeineCacheMetrics.monitor(meterRegistry, responses, "questionBanks");
+    }
+
+    @Override
+    public List<QuestionBank> getAllQuestionBanks() {
+        return read("all", bankList, delegate::getAllQuestionBanks);
+    }
+
+    @Override
+    public Optional<QuestionBank> getQuestionBankById(Long id) {
+        return Optional.ofNullable(read("bank:" + id, objectMapper.constructType(QuestionBank.class),
+            () -> delegate.getQuestionBankById(id).orElse(null)));
+    }
+
+    @Override
+    public List<BankQuestion> getQuestionsByBankId(Long bankId) {
+        return read("questions:" + bankId, questionList, () -> delegate.getQuestionsByBankId(bankId));
+    }
+
+    @Override
+    public List<QuestionBank> getQuestionBanksBySubject(String subject) {
+        return read("subject:" + subject, bankList, () -> delegate.getQuestionBanksBySubject(subject));
+    }
+
+    @Override
+    public List<QuestionBank> getQuestionBanksByDifficulty(QuestionBank.Difficulty difficulty) {
+        return read("difficulty:" + difficulty, bankList, () -> delegate.getQuestionBanksByDifficulty(difficulty));
+    }
+
+    @Override
+    public QuestionBank createQuestionBank(String subject, QuestionBank.Difficulty difficulty) {
+        try {
+            return delegate.createQuestionBank(subject, difficulty);
+        } finally {
+            invalidate();
+        }
+    }
+
+    @Override
+    public BankQuestion addQuestionToBank(Long bankId, String text, List<BankQuestion.QuestionOption> options) {
+        try {
+            return delegate.addQuestionToBank(bankId, text, options);
+        } finally {
+            invalidate();
+        }
+    }
+
+    @Override
+    public QuestionBank saveQuestionBankWithQuestions(QuestionBank questionBank) {
+        try {
+            return delegate.saveQuestionBankWithQuestions(questionBank);
+        } finally {
+            invalidate();
+        }
+    }
+
+    @Override
+    public void deleteQuestionBank(Long id) {
+        try {
+            delegate.deleteQuestionBank(id);
+        } finally {
+            invalidate();
+        }
+    }
+
+    @Override
+    public long getCatalogVersion() {
+        return delegate.getCatalogVersion();
+    }
+
+    /** Drops the cache when the catalog changed on another node. */
+    @Scheduled(fixedDelayString = "${app.question-banks.version-poll-ms:2000}")
+    public void checkVersion() {
+        long version;
+        try {
+            version = delegate.getCatalogVersion();
+        } catch (RestClientException e) {
+            log.debug("Could not read the question bank catalog version: {}", e.getMessage());
+            return;
+        }
+        if (version != catalogVersion) {
+            if (catalogVersion != -1) {
+                invalidate();
+            }
+            catalogVersion = version;
+        }
+    }
+
+    private void invalidate() {
+        generation.incrementAndGet();
+        responses.invalidateAll();
+    }
+
+    private <T> T read(String name, JavaType type, Supplier<T> load) {
+        long loadedAt = generation.get();
+        String key = loadedAt + ":" + name;
+        byte[] cached = responses.getIfPresent(key);
+        try {
+            if (cached != null) {
+                return objectMapper.readValue(cached, type);
+            }
+            T value = load.get();
+            // Not-found answers are not cached; the bank may be created any moment
+            if (value != null && generation.get() == loadedAt) {
+                responses.put(key, objectMapper.writeValueAsBytes(value));
+            }
+            return value;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to copy cached question bank response " + name, e);
+        }
+    }
+}
@@ -0,0 +1,143 @@
+package com.example.quiz.microservices.impl;
+
+import com.example.quiz.domain.User;
+import com.example.quiz.microservices.ResultService;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Primary;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Supplier;
+
+/**
+ * Collapses identical concurrent calls to result-service into one: the first caller makes the
+ * request and everyone asking for the same thing meanwhile waits for its answer. The answer is
+ * then reused for a short, per-method TTL ({@code app.results.cache.*-ttl-ms}), so however many
+ * clients poll, result-service sees at most one request per key per TTL. Failures are not cached.
+ *
+ * <p>Cached maps and lists are shared between callers and must not be modified.
+ */
+@Service
+@Primary
+@ConditionalOnProperty(name = "microservices.mode", havingValue = "eureka")
+public class CoalescingResultService implements ResultService {
+    enum Method { STUDENT_RESULTS, QUIZ_STATISTICS, QUIZ_DISTRIBUTION, LEADERBOARD }
+
+    private final ResultService delegate;
+    private final Cache<Key, CompletableFuture<Object>> calls;
+    private final Map<Method, Counter[]> outcomes = new EnumMap<>(Method.class);
+
+    public CoalescingResultService(@Qualifier("eurekaResultService") ResultService delegate,
+                                   MeterRegistry meterRegistry,
+                                   @Value("${app.results.cache.student-ttl-ms:1000}") long studentTtlMillis,
+                                   @Value("${app.results.cache.quiz-ttl-ms:2000}") long quizTtlMillis,
+                                   @Value("${app.results.cache.leaderboard-ttl-ms:5000}") long leaderboardTtlMillis,
+                                   @Value("${app.results.cache.max-entries:10000}") long maxEntries) {
+        this.delegate = delegate;
+        Map<Method, Long> ttls = new EnumMap<>(Map.of(
+            Method.STUDENT_RESULTS, Duration.ofMillis(studentTtlMillis).toNanos(),
+            Method.QUIZ_STATISTICS, Duration.ofMillis(quizTtlMillis).toNanos(),
+            Method.QUIZ_DISTRIBUTION, Duration.ofMillis(quizTtlMillis).toNanos(),
+            Method.LEADERBOARD, Duration.ofMillis(leaderboardTtlMillis).toNanos()));
+        this.calls = Caffeine.newBuilder()
+            .maximumSize(maxEntries)
+            .expireAfter(new Expiry<Key, CompletableFuture<Object>>() {
+                // An in-flight call never expires; its TTL starts when the answer is stored
+                @Override
+                public long expireAfterCreate(Key key, CompletableFuture<Object> call, long currentTime) {
+                    return call.isDone() ? ttls.get(key.method()) : Long.MAX_VALUE;
+                }
+
+                @Override
+                public long expireAfterUpdate(Key key, CompletableFuture<Object> call, long currentTime, long currentDuration) {
+                    return call.isDone() ? ttls.get(key.method()) : currentDuration;
+                }
+
+                @Override
+                public long expireAfterRead(Key key, CompletableFuture<Object> call, long currentTime, long currentDuration) {
+                    return currentDuration;
+                }
+            })
+            .build();
+        for (Method method : Method.values()) {
+            String name = method.name().toLowerCase();
+            outcomes.put(method, new Counter[] {
+                outcome(meterRegistry, name, "called"),
+                outcome(meterRegistry, name, "coalesced"),
+                outcome(meterRegistry, name, "cached")
+            });
+        }
+    }
+
+    private static Counter outcome(MeterRegistry meterRegistry, String method, String outcome) {
+        return Counter.builder("results.client.requests")
+            .description("Result-service lookups: 'called' went downstream, 'coalesced' joined an in-flight call, 'cached' reused a recent answer")
+            .tag("method", method)
+            .tag("outcome", outcome)
+            .register(meterRegistry);
+    }
+
+    @Override
+    public Map<String, Object> getStudentResults(User user) {
+        return call(Method.STUDENT_RESULTS, user.getId(), () -> delegate.getStudentResults(user));
+    }
+
+    @Override
+    public Map<String, Object> getQuizStatistics(Long quizId) {
+        return call(Method.QUIZ_STATISTICS, quizId, () -> delegate.getQuizStatistics(quizId));
+    }
+
+    @Override
+    public Map<String, Object> getQuizDistribution(Long quizId) {
+        return call(Method.QUIZ_DISTRIBUTION, quizId, () -> delegate.getQuizDistribution(quizId));
+    }
+
+    @Override
+    public List<Map<String, Object>> getLeaderboard() {
+        return call(Method.LEADERBOARD, null, delegate::getLeaderboard);
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T> T call(Method method, Object argument, Supplier<T> request) {
+        Key key = new Key(method, argument);
+        CompletableFuture<Object> mine = new CompletableFuture<>();
+        CompletableFuture<Object> shared = calls.asMap().putIfAbsent(key, mine);
+        Counter[] counters = outcomes.get(method);
+        if (shared == null) {
+            counters[0].increment();
+            try {
+                T result = request.get();
+                mine.complete(result);
+                // Re-put to start the TTL now that the answer is in
+                calls.asMap().replace(key, mine, mine);
+                return result;
+            } catch (RuntimeException e) {
+                calls.asMap().remove(key, mine);
+                mine.completeExceptionally(e);
+                throw e;
+            }
+        }
+
+        (shared.isDone() ? counters[2] : counters[1]).increment();
+        try {
+            return (T) shared.join();
+        } catch (CompletionException e) {
+            // Rethrow what the leading caller saw
+            throw e.getCause() instanceof RuntimeException cause ? cause : e;
+        }
+    }
+
+    private record Key(Method method, Object argument) {}
+}
@@ -13,33 +13,39 @@ import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 
-@Service("questionBankMicroservice")
+@Service
 @ConditionalOnProperty(name = "microservices.mode", havingValue = "eureka")
 public class EurekaQuestionBankService implements QuestionBankService {
+    private static final String SERVICE = "question-bank-service";
 
     @Autowired
     @Qualifier("loadBalancedRestTemplate")
     private RestTemplate restTemplate;
 
+    @Autowired
+    private ServiceCallGuard guard;
+
     @Override
     public QuestionBank createQuestionBank(String subject, QuestionBank.Difficulty difficulty) {
         Map<String, Object> request = Map.of("subject", subject, "difficulty", difficulty.name());
-        return restTemplate.postForObject("http://question-bank-service/api/question-banks", request,
-                QuestionBank.class);
+        return guard.write(SERVICE, () -> restTemplate.postForObject("http://question-bank-service/api/question-banks", request,
+                QuestionBank.class));
     }
 
     @Override
     public List<QuestionBank> getAllQuestionBanks() {
-        QuestionBank[] result = restTemplate.getForObject("http://question-bank-service/api/question-banks",
-                QuestionBank[].class);
-        return result != null ? List.of(result) : List.of();
+        return guard.read(SERVICE, "all", () -> {
+            QuestionBank[] result = restTemplate.getForObject("http://question-bank-service/api/question-banks",
+                    QuestionBank[].class);
+            return result != null ? List.of(result) : List.of();
+        });
     }
 
     @Override
     public Optional<QuestionBank> getQuestionBankById(Long id) {
         try {
-            QuestionBank result = restTemplate.getForObject("http://question-bank-service/api/question-banks/" + id,
-                    QuestionBank.class);
+            QuestionBank result = guard.read(SERVICE, "bank:" + id,
+                    () -> restTemplate.getForObject("http://question-bank-service/api/question-banks/" + id, QuestionBank.class));
             return Optional.ofNullable(result);
         } catch (Exception e) {
             return Optional.empty();
@@ -48,46 +54,66 @@ public class EurekaQuestionBankService implements QuestionBankService {
 
     @Override
     public List<BankQuestion> getQuestionsByBankId(Long bankId) {
-        BankQuestion[] result = restTemplate.getForObject(
-                "http://question-bank-service/api/question-banks/" + bankId + "/questions", BankQuestion[].class);
-        return result != null ? List.of(result) : List.of();
+        return guard.read(SERVICE, "questions:" + bankId, () -> {
+            BankQuestion[] result = restTemplate.getForObject(
+                    "http://question-bank-service/api/question-banks/" + bankId + "/questions", BankQuestion[].class);
+            return result != null ? List.of(result) : List.of();
+        });
     }
 
     @Override
     public BankQuestion addQuestionToBank(Long bankId, String text, List<BankQuestion.QuestionOption> options) {
         Map<String, Object> request = Map.of("text", text, "options", options);
-        return restTemplate.postForObject("http://question-bank-service/api/question-banks/" + bankId + "/questions",
-                request, BankQuestion.class);
+        return guard.write(SERVICE, () -> restTemplate.postForObject(
+                "http://question-bank-service/api/question-banks/" + bankId + "/questions", request, BankQuestion.class));
     }
 
     @Override
     public List<QuestionBank> getQuestionBanksBySubject(String subject) {
-        QuestionBank[] result = restTemplate.getForObject(
-                "http://question-bank-service/api/question-banks/subject/" + subject, QuestionBank[].class);
-        return result != null ? List.of(result) : List.of();
+        return guard.read(SERVICE, "subject:" + subject, () -> {
+            QuestionBank[] result = restTemplate.getForObject(
+                    "http://question-bank-service/api/question-banks/subject/" + subject, QuestionBank[].class);
+            return result != null ? List.of(result) : List.of();
+        });
     }
 
     @Override
     public List<QuestionBank> getQuestionBanksByDifficulty(QuestionBank.Difficulty difficulty) {
-        QuestionBank[] result = restTemplate.getForObject(
-                "http://question-bank-service/api/question-banks/difficulty/" + difficulty.name(),
-                QuestionBank[].class);
-        return result != null ? List.of(result) : List.of();
+        return guard.read(SERVICE, "difficulty:" + difficulty, () -> {
+            QuestionBank[] result = restTemplate.getForObject(
+                    "http://question-bank-service/api/question-banks/difficulty/" + difficulty.name(),
+                    QuestionBank[].class);
+            return result != null ? List.of(result) : List.of();
+        });
     }
 
     @Override
     public QuestionBank saveQuestionBankWithQuestions(QuestionBank questionBank) {
         if (questionBank.getId() == null) {
-            return restTemplate.postForObject("http://question-bank-service/api/question-banks", questionBank,
-                    QuestionBank.class);
+            return guard.write(SERVICE, () -> restTemplate.postForObject("http://question-bank-service/api/question-banks",
+                    questionBank, QuestionBank.class));
         } else {
-            restTemplate.put("http://question-bank-service/api/question-banks/" + questionBank.getId(), questionBank);
+            guard.write(SERVICE, () -> {
+                restTemplate.put("http://question-bank-service/api/question-banks/" + questionBank.getId(), questionBank);
+                return null;
+            });
             return questionBank;
         }
     }
 
     @Override
     public void deleteQuestionBank(Long id) {
-        restTemplate.delete("http://question-bank-service/api/question-banks/" + id);
+        guard.write(SERVICE, () -> {
+            restTemplate.delete("http://question-bank-service/api/question-banks/" + id);
+            return null;
+        });
+    }
+
+    @Override
+    public long getCatalogVersion() {
+        // Not served from memory: a stale version would hide changes made elsewhere
+        Map<?, ?> result = guard.readFresh(SERVICE,
+                () -> restTemplate.getForObject("http://question-bank-service/api/question-banks/version", Map.class));
+        return result != null && result.get("version") instanceof Number version ? version.longValue() : 0L;
     }
 }
\ No newline at end of file
@@ -14,28 +14,43 @@ import java.util.Map;
 @Service
 @ConditionalOnProperty(name = "microservices.mode", havingValue = "eureka")
 public class EurekaResultService implements ResultService {
+    private static final String SERVICE = "result-service";
 
     @Autowired
     @Qualifier("loadBalancedRestTemplate")
     private RestTemplate restTemplate;
 
+    @Autowired
+    private ServiceCallGuard guard;
+
     @Override
     @SuppressWarnings("unchecked")
     public Map<String, Object> getStudentResults(User user) {
-        return restTemplate.getForObject("http://result-service/api/results/student/" + user.getId(), Map.class);
+        return guard.read(SERVICE, "student:" + user.getId(),
+                () -> restTemplate.getForObject("http://result-service/api/results/student/" + user.getId(), Map.class));
     }
 
     @Override
     @SuppressWarnings("unchecked")
     public Map<String, Object> getQuizStatistics(Long quizId) {
-        return restTemplate.getForObject("http://result-service/api/results/quiz/" + quizId, Map.class);
+        return guard.read(SERVICE, "quiz:" + quizId,
+                () -> restTemplate.getForObject("http://result-service/api/results/quiz/" + quizId, Map.class));
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public Map<String, Object> getQuizDistribution(Long quizId) {
+        return guard.read(SERVICE, "distribution:" + quizId,
+                () -> restTemplate.getForObject("http://result-service/api/results/quiz/" + quizId + "/distribution", Map.class));
     }
 
     @Override
     @SuppressWarnings("unchecked")
     public List<Map<String, Object>> getLeaderboard() {
-        Map<String, Object>[] results = restTemplate.getForObject("http://result-service/api/results/leaderboard",
-                Map[].class);
-        return results != null ? List.of(results) : List.of();
+        return guard.read(SERVICE, "leaderboard", () -> {
+            Map<String, Object>[] results = restTemplate.getForObject("http://result-service/api/results/leaderboard",
+                    Map[].class);
+            return results != null ? List.of(results) : List.of();
+        });
     }
 }
\ No newline at end of file
@@ -0,0 +1,42 @@
+package com.example.quiz.microservices.impl;
+
+import com.example.quiz.domain.BankQuestion;
+import com.example.quiz.domain.QuestionBank;
+import com.example.quiz.microservices.AsyncQuestionBankService;
+import com.example.quiz.microservices.QuestionBankService;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+
+/** {@link AsyncQuestionBankService} over the cached, guarded {@link QuestionBankService}, run on the {@link AsyncReadPool}. */
+@Service
+@ConditionalOnProperty(name = "microservices.mode", havingValue = "eureka")
+public class PooledAsyncQuestionBankService implements AsyncQuestionBankService {
+    private final QuestionBankService questionBankService;
+    private final AsyncReadPool pool;
+
+    public PooledAsyncQuestionBankService(@Qualifier("questionBankMicroservice") QuestionBankService questionBankService,
+                                          AsyncReadPool pool) {
+        this.questionBankService = questionBankService;
+        this.pool = pool;
+    }
+
+    @Override
+    public CompletableFuture<List<QuestionBank>> getAllQuestionBanks() {
+        return pool.supply(questionBankService::getAllQuestionBanks);
+    }
+
+    @Override
+    public CompletableFuture<Optional<QuestionBank>> getQuestionBankById(Long id) {
+        return pool.supply(() -> questionBankService.getQuestionBankById(id));
+    }
+
+    @Override
+    public CompletableFuture<List<BankQuestion>> getQuestionsByBankId(Long bankId) {
+        return pool.supply(() -> questionBankService.getQuestionsByBankId(bankId));
+    }
+}
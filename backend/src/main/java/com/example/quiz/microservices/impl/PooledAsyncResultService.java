@@ -0,0 +1,46 @@
+package com.example.quiz.microservices.impl;
+
+import com.example.quiz.domain.User;
+import com.example.quiz.microservices.AsyncResultService;
+import com.example.quiz.microservices.ResultService;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+/** {@link AsyncResultService} over the coalescing, guarded {@link ResultService}, run on the {@link AsyncReadPool}. */
+@Service
+@ConditionalOnProperty(name = "microservices.mode", havingValue = "eureka")
+public class PooledAsyncResultService implements AsyncResultService {
+    private final ResultService resultService;
+    private final AsyncReadPool pool;
+
+    public PooledAsyncResultService(ResultService resultService, AsyncReadPool pool) {
+        this.resultService = resultService;
+        this.pool = pool;
+    }
+
+    @Override
+    public CompletableFuture<Map<String, Object>> getStudentResults(Long studentId) {
+        User student = new User();
+        student.setId(studentId);
+        return pool.supply(() -> resultService.getStudentResults(student));
+    }
+
+    @Override
+    public CompletableFuture<Map<String, Object>> getQuizStatistics(Long quizId) {
+        return pool.supply(() -> resultService.getQuizStatistics(quizId));
+    }
+
+    @Override
+    public CompletableFuture<Map<String, Object>> getQuizDistribution(Long quizId) {
+        return pool.supply(() -> resultService.getQuizDistribution(quizId));
+    }
+
+    @Override
+    public CompletableFuture<List<Map<String, Object>>> getLeaderboard() {
+        return pool.supply(resultService::getLeaderboard);
+    }
+}
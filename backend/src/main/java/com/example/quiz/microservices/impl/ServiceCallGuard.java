@@ -0,0 +1,104 @@
+package com.example.quiz.microservices.impl;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cloud.client.circuitbreaker.CircuitBreaker;
+import org.springframework.cloud.client.circuitbreaker.CircuitBreakerFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.RestClientException;
+
+import java.util.Map;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.function.Supplier;
+
+/**
+ * Runs calls to a service behind that service's circuit breaker, time limit and bulkhead (see
+ * {@code ResilienceConfig}). Successful reads are remembered, and when a read fails because the
+ * service is down, slow, saturated or its breaker is open, the last good answer for the same
+ * request is served instead. Stale answers are counted in {@code service.client.stale{service}}.
+ *
+ * <p>Writes go through a separate breaker and bulkhead ({@code <service>/write}) with a time limit
+ * longer than the HTTP client's own timeouts: a write is never reported as failed while it may
+ * still commit downstream, and failing writes cannot open the breaker that guards reads.
+ *
+ * <p>Remembered answers are shared between callers and must not be modified.
+ */
+@Component
+@Slf4j
+public class ServiceCallGuard {
+    public static final String WRITE_SUFFIX = "/write";
+
+    private final CircuitBreakerFactory<?, ?> circuitBreakerFactory;
+    private final MeterRegistry meterRegistry;
+    private final Cache<String, Object> lastKnownGood;
+    private final Map<String, CircuitBreaker> circuitBreakers = new ConcurrentHashMap<>();
+
+    public ServiceCallGuard(CircuitBreakerFactory<?, ?> circuitBreakerFactory,
+                            MeterRegistry meterRegistry,
+                            @Value("${app.resilience.stale-entries:10000}") long staleEntries) {
+        this.circuitBreakerFactory = circuitBreakerFactory;
+        this.meterRegistry = meterRegistry;
+        this.lastKnownGood = Caffeine.newBuilder().maximumSize(staleEntries).build();
+    }
+
+    /** A read that falls back to the last good answer for {@code key} when the service is unavailable. */
+    @SuppressWarnings("unchecked")
+    public <T> T read(String service, String key, Supplier<T> call) {
+        String staleKey = service + ":" + key;
+        return circuitBreaker(service).run(() -> {
+            T result = call.get();
+            if (result != null) {
+                lastKnownGood.put(staleKey, result);
+            }
+            return result;
+        }, failure -> {
+            Throwable error = unwrap(failure);
+            T stale = error instanceof HttpClientErrorException ? null : (T) lastKnownGood.getIfPresent(staleKey);
+            if (stale == null) {
+                throw unavailable(service, error);
+            }
+            log.warn("{} unavailable ({}), serving last known {}", service, error.toString(), key);
+            Counter.builder("service.client.stale")
+                .description("Reads answered with a remembered response because the service was unavailable")
+                .tag("service", service)
+                .register(meterRegistry)
+                .increment();
+            return stale;
+        });
+    }
+
+    /** A read guarded like {@link #read} but never answered from memory, for answers that must be current. */
+    public <T> T readFresh(String service, Supplier<T> call) {
+        return circuitBreaker(service).run(call, failure -> {
+            throw unavailable(service, unwrap(failure));
+        });
+    }
+
+    /** A change, on the service's write breaker; never answered from memory. */
+    public <T> T write(String service, Supplier<T> call) {
+        return circuitBreaker(service + WRITE_SUFFIX).run(call, failure -> {
+            throw unavailable(service, unwrap(failure));
+        });
+    }
+
+    private CircuitBreaker circuitBreaker(String service) {
+        return circuitBreakers.computeIfAbsent(service, circuitBreakerFactory::create);
+    }
+
+    private static Throwable unwrap(Throwable failure) {
+        return (failure instanceof CompletionException || failure instanceof ExecutionException) && failure.getCause() != null
+            ? failure.getCause() : failure;
+    }
+
+    private static RuntimeException unavailable(String service, Throwable error) {
+        // Errors from the service itself are passed on as they are
+        return error instanceof RestClientException e ? e : new RestClientException(service + " is unavailable", error);
+    }
+}
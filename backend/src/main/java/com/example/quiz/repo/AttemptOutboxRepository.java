@@ -0,0 +1,11 @@
+package com.example.quiz.repo;
+
+import com.example.quiz.domain.AttemptOutboxEvent;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import java.util.List;
+
+public interface AttemptOutboxRepository extends JpaRepository<AttemptOutboxEvent, Long> {
+    List<AttemptOutboxEvent> findByOrderByIdAsc(Pageable page);
+}
@@ -1,16 +1,44 @@
 package com.example.quiz.repo;
 
 import com.example.quiz.domain.Attempt;
-import com.example.quiz.domain.Quiz;
-import com.example.quiz.domain.User;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 
+import java.time.Instant;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
 public interface AttemptRepository extends JpaRepository<Attempt, Long> {
-    List<Attempt> findByStudent(User user);
-    List<Attempt> findByQuiz(Quiz quiz);
-    List<Attempt> findByQuizId(Long quizId);
+    String VIEW_SELECT = "select new com.example.quiz.repo.AttemptView(a.id, s.id, s.name, q.id, q.title, a.score, a.createdAt) " +
+                         "from Attempt a join a.student s join a.quiz q ";
+
+    @Query(VIEW_SELECT + "order by a.id")
+    List<AttemptView> findViews();
+
+    @Query(VIEW_SELECT + "where a.id = :id")
+    Optional<AttemptView> findViewById(@Param("id") Long id);
+
+    @Query(VIEW_SELECT + "where s.id = :studentId order by a.id")
+    List<AttemptView> findViewsByStudentId(@Param("studentId") Long studentId);
+
+    @Query(VIEW_SELECT + "where q.id = :quizId order by a.id")
+    List<AttemptView> findViewsByQuizId(@Param("quizId") Long quizId);
+
+    @Query("select new com.example.quiz.repo.ScoreAggregate(count(a), coalesce(sum(a.score), 0L), min(a.score), max(a.score)) from Attempt a")
+    ScoreAggregate aggregateScores();
+
+    // Integer.MIN_VALUE makes MySQL Connector/J stream rows one at a time, so exports run in constant
+    // memory; the connection is busy until the stream is closed and the caller must hold a read-only transaction
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "" + Integer.MIN_VALUE))
+    @Query(VIEW_SELECT +
+           "where (:since is null or a.createdAt >= :since) and (:quizId is null or q.id = :quizId) " +
+           "order by a.id")
+    Stream<AttemptView> streamViews(@Param("since") Instant since, @Param("quizId") Long quizId);
 }
 
 
@@ -0,0 +1,7 @@
+package com.example.quiz.repo;
+
+import java.time.Instant;
+
+/** Flat, read-only view of an attempt with its student and quiz names, loaded in one joined query. */
+public record AttemptView(Long id, Long studentId, String studentName, Long quizId, String quizTitle,
+                          int score, Instant createdAt) {}
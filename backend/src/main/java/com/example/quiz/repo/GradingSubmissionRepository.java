@@ -0,0 +1,48 @@
+package com.example.quiz.repo;
+
+import com.example.quiz.domain.GradingSubmission;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+
+public interface GradingSubmissionRepository extends JpaRepository<GradingSubmission, String> {
+    @Query("select s.id from GradingSubmission s where s.status = com.example.quiz.domain.GradingSubmission.Status.PENDING " +
+           "and s.claimedAt < :cutoff order by s.claimedAt")
+    List<String> findStaleIds(@Param("cutoff") Instant cutoff, Pageable page);
+
+    // Conditional updates: only one instance wins a claim, and only one grading of a submission completes it
+
+    @Modifying
+    @Transactional
+    @Query("update GradingSubmission s set s.claimedAt = :now where s.id = :id " +
+           "and s.status = com.example.quiz.domain.GradingSubmission.Status.PENDING and s.claimedAt < :cutoff")
+    int claim(@Param("id") String id, @Param("now") Instant now, @Param("cutoff") Instant cutoff);
+
+    @Modifying
+    @Query("update GradingSubmission s set s.status = com.example.quiz.domain.GradingSubmission.Status.COMPLETED, " +
+           "s.attemptId = :attemptId where s.id = :id and s.status = com.example.quiz.domain.GradingSubmission.Status.PENDING")
+    int complete(@Param("id") String id, @Param("attemptId") Long attemptId);
+
+    @Modifying
+    @Transactional
+    @Query("update GradingSubmission s set s.status = com.example.quiz.domain.GradingSubmission.Status.FAILED, " +
+           "s.error = :error where s.id = :id and s.status = com.example.quiz.domain.GradingSubmission.Status.PENDING")
+    int fail(@Param("id") String id, @Param("error") String error);
+
+    @Modifying
+    @Transactional
+    // Pending submissions are kept however old, so one still queued or grading can always complete
+    @Query("delete from GradingSubmission s where s.submittedAt < :cutoff " +
+           "and s.status <> com.example.quiz.domain.GradingSubmission.Status.PENDING")
+    int deleteFinishedBefore(@Param("cutoff") Instant cutoff);
+
+    @Query("select s.status from GradingSubmission s where s.id = :id")
+    Optional<GradingSubmission.Status> findStatusById(@Param("id") String id);
+}
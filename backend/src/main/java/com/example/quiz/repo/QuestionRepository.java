@@ -2,12 +2,40 @@ package com.example.quiz.repo;
 
 import com.example.quiz.domain.Question;
 import com.example.quiz.domain.Quiz;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.util.Collection;
 import java.util.List;
 
 public interface QuestionRepository extends JpaRepository<Question, Long> {
     List<Question> findByQuiz(Quiz quiz);
-    void deleteByQuiz(Quiz quiz);
+
+    // Options live in a column of the question row, so this is a single range read on quiz_id,
+    // in the same order students see the questions
+    @Query("select q from Question q where q.quiz.id = :quizId order by q.position, q.id")
+    List<Question> findWithOptionsByQuizId(@Param("quizId") Long quizId);
+
+    @Query("select q.id from Question q where q.options is null order by q.id")
+    List<Long> findIdsWithLegacyOptions(Pageable page);
+
+    // Locks the rows and re-checks options, so a question saved since its id was listed is left alone
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select distinct q from Question q left join fetch q.legacyOptions where q.id in :ids and q.options is null")
+    List<Question> findWithLegacyOptionsByIdIn(@Param("ids") Collection<Long> ids);
+
+    // Legacy option rows, if any are left, would block deleting their questions
+    @Modifying
+    @Query(value = "delete from question_options where question_id in (:ids)", nativeQuery = true)
+    int deleteOptionsByQuestionIds(@Param("ids") Collection<Long> ids);
+
+    @Modifying
+    @Query("delete from Question q where q.id in :ids")
+    int deleteByIds(@Param("ids") Collection<Long> ids);
 }
 
@@ -2,8 +2,17 @@ package com.example.quiz.repo;
 
 import com.example.quiz.domain.Quiz;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
-public interface QuizRepository extends JpaRepository<Quiz, Long> {
-}
+import java.util.Optional;
 
+public interface QuizRepository extends JpaRepository<Quiz, Long> {
+    @Query("select q.version from Quiz q where q.id = :id")
+    Optional<Long> findVersionById(@Param("id") Long id);
 
+    @Modifying
+    @Query("update Quiz q set q.version = q.version + 1 where q.id = :id")
+    int bumpVersion(@Param("id") Long id);
+}
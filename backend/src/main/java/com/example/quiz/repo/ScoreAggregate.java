@@ -0,0 +1,4 @@
+package com.example.quiz.repo;
+
+/** Count, sum and bounds of attempt scores, computed in the database. */
+public record ScoreAggregate(Long count, Long sum, Integer min, Integer max) {}
@@ -0,0 +1,4 @@
+package com.example.quiz.repo;
+
+/** Per-student attempt count and average score, grouped in the database. */
+public record StudentScoreSummary(Long studentId, String name, Long attempts, Double avgScore) {}
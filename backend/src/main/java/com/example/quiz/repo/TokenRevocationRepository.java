@@ -0,0 +1,24 @@
+package com.example.quiz.repo;
+
+import com.example.quiz.domain.TokenRevocation;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+
+public interface TokenRevocationRepository extends JpaRepository<TokenRevocation, Long> {
+    List<TokenRevocation> findByIdGreaterThanOrderByIdAsc(long afterId, Pageable page);
+
+    List<TokenRevocation> findByIdIn(Collection<Long> ids);
+
+    @Modifying
+    @Transactional
+    @Query("delete from TokenRevocation r where r.expiresAt < :now")
+    int deleteExpired(@Param("now") Instant now);
+}
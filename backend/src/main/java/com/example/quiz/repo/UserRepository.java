@@ -1,12 +1,46 @@
 package com.example.quiz.repo;
 
 import com.example.quiz.domain.User;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 public interface UserRepository extends JpaRepository<User, Long> {
     Optional<User> findByEmail(String email);
-}
 
+    @Query("select u.email from User u where u.email in :emails")
+    List<String> findExistingEmails(@Param("emails") Collection<String> emails);
+
+    // Keyset-paged per-student aggregates; each variant resumes strictly after the (value, id) cursor
+
+    @Query("select new com.example.quiz.repo.StudentScoreSummary(u.id, u.name, count(a), coalesce(avg(a.score), 0.0)) " +
+           "from User u left join u.attempts a " +
+           "where u.role = com.example.quiz.domain.Role.STUDENT and u.id > :afterId " +
+           "group by u.id, u.name order by u.id")
+    List<StudentScoreSummary> summarizeStudentsById(@Param("afterId") long afterId, Pageable page);
+
+    @Query("select new com.example.quiz.repo.StudentScoreSummary(u.id, u.name, count(a), coalesce(avg(a.score), 0.0)) " +
+           "from User u left join u.attempts a " +
+           "where u.role = com.example.quiz.domain.Role.STUDENT " +
+           "group by u.id, u.name " +
+           "having coalesce(avg(a.score), 0.0) < :afterAvg " +
+           "or (coalesce(avg(a.score), 0.0) = :afterAvg and u.id > :afterId) " +
+           "order by coalesce(avg(a.score), 0.0) desc, u.id")
+    List<StudentScoreSummary> summarizeStudentsByAverage(@Param("afterAvg") double afterAvg,
+                                                         @Param("afterId") long afterId, Pageable page);
+
+    @Query("select new com.example.quiz.repo.StudentScoreSummary(u.id, u.name, count(a), coalesce(avg(a.score), 0.0)) " +
+           "from User u left join u.attempts a " +
+           "where u.role = com.example.quiz.domain.Role.STUDENT " +
+           "group by u.id, u.name " +
+           "having count(a) < :afterCount or (count(a) = :afterCount and u.id > :afterId) " +
+           "order by count(a) desc, u.id")
+    List<StudentScoreSummary> summarizeStudentsByAttempts(@Param("afterCount") long afterCount,
+                                                          @Param("afterId") long afterId, Pageable page);
+}
 
@@ -0,0 +1,108 @@
+package com.example.quiz.security;
+
+import com.example.quiz.domain.TokenRevocation;
+import com.example.quiz.repo.TokenRevocationRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.TreeMap;
+
+/**
+ * Shares revocations through the {@code token_revocation} table. Each instance reads the rows past
+ * the highest id it has seen, so a poll costs an indexed range scan however large the table is.
+ *
+ * <p>Ids can commit out of order, so an id skipped below the mark is remembered as a gap and looked
+ * up by primary key on every poll until its row appears or {@code app.revocation.gap-timeout-ms}
+ * passes (a rolled-back insert leaves a gap that never fills). Only this instance's clock is
+ * involved, so skew between writers cannot hide a revocation.
+ */
+@Component
+@Slf4j
+@ConditionalOnProperty(name = "app.revocation.store", havingValue = "jdbc")
+public class JdbcRevocationStore implements RevocationStore {
+    private final TokenRevocationRepository tokenRevocationRepository;
+    private final int batchSize;
+    private final Duration gapTimeout;
+    private final int maxGaps;
+
+    private long highWaterMark;
+    private boolean loaded;
+    // Missing ids below the mark, with when they were first noticed
+    private final TreeMap<Long, Instant> gaps = new TreeMap<>();
+
+    public JdbcRevocationStore(TokenRevocationRepository tokenRevocationRepository,
+                               @Value("${app.revocation.batch-size:1000}") int batchSize,
+                               @Value("${app.revocation.gap-timeout-ms:60000}") long gapTimeoutMillis,
+                               @Value("${app.revocation.max-gaps:10000}") int maxGaps) {
+        this.tokenRevocationRepository = tokenRevocationRepository;
+        this.batchSize = batchSize;
+        this.gapTimeout = Duration.ofMillis(gapTimeoutMillis);
+        this.maxGaps = maxGaps;
+    }
+
+    @Override
+    public void revoke(String tokenId, Instant expiresAt) {
+        tokenRevocationRepository.save(new TokenRevocation(tokenId, expiresAt));
+    }
+
+    @Override
+    public synchronized List<Revocation> pollNew() {
+        Instant now = Instant.now();
+        List<Revocation> result = new ArrayList<>();
+        fillGaps(now, result);
+
+        List<TokenRevocation> rows;
+        do {
+            rows = tokenRevocationRepository.findByIdGreaterThanOrderByIdAsc(highWaterMark, PageRequest.ofSize(batchSize));
+            for (TokenRevocation row : rows) {
+                // On the first poll, holes are purged rows rather than commits still in flight
+                for (long missing = Math.max(highWaterMark + 1, row.getId() - maxGaps); loaded && missing < row.getId(); missing++) {
+                    gaps.put(missing, now);
+                }
+                highWaterMark = row.getId();
+                result.add(toRevocation(row));
+            }
+        } while (rows.size() == batchSize);
+        loaded = true;
+
+        if (gaps.size() > maxGaps) {
+            log.warn("{} revocation id gaps outstanding, giving up on the oldest {}", gaps.size(), gaps.size() - maxGaps);
+            while (gaps.size() > maxGaps) {
+                gaps.pollFirstEntry();
+            }
+        }
+        return result;
+    }
+
+    private void fillGaps(Instant now, List<Revocation> result) {
+        if (gaps.isEmpty()) {
+            return;
+        }
+        for (TokenRevocation row : tokenRevocationRepository.findByIdIn(List.copyOf(gaps.keySet()))) {
+            gaps.remove(row.getId());
+            result.add(toRevocation(row));
+        }
+        Instant cutoff = now.minus(gapTimeout);
+        gaps.values().removeIf(noticed -> noticed.isBefore(cutoff));
+    }
+
+    private static Revocation toRevocation(TokenRevocation row) {
+        return new Revocation(row.getTokenId(), row.getExpiresAt());
+    }
+
+    @Scheduled(fixedDelayString = "${app.revocation.purge-ms:3600000}")
+    public void purgeExpired() {
+        int purged = tokenRevocationRepository.deleteExpired(Instant.now());
+        if (purged > 0) {
+            log.debug("Purged {} expired token revocations", purged);
+        }
+    }
+}
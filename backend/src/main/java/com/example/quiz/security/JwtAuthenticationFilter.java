@@ -1,5 +1,6 @@
 package com.example.quiz.security;
 
+import com.example.quiz.service.UserService;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -13,6 +14,7 @@ import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
 import java.util.List;
+import java.util.Optional;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -21,9 +23,11 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
     private static final Logger logger = LoggerFactory.getLogger(JwtAuthenticationFilter.class);
 
     private final JwtTokenValidator tokenValidator;
+    private final UserService userService;
 
-    public JwtAuthenticationFilter(JwtTokenValidator tokenValidator) {
+    public JwtAuthenticationFilter(JwtTokenValidator tokenValidator, UserService userService) {
         this.tokenValidator = tokenValidator;
+        this.userService = userService;
     }
 
     @Override
@@ -58,16 +62,27 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         }
 
         // Token is valid, set authentication
-        String username = validationResult.getUsername();
-        String role = validationResult.getRole();
+        VerifiedToken token = validationResult.getToken();
 
-        logger.debug("Processing valid token for user: {}", username);
+        logger.debug("Processing valid token for user: {}", token.subject());
 
         if (SecurityContextHolder.getContext().getAuthentication() == null) {
+            // Tokens issued before the uid claim fall back to a lookup by email
+            Optional<SessionUser> principal = token.userId() != null
+                    ? userService.findSessionUser(token.userId())
+                    : userService.findByEmail(token.subject()).map(SessionUser::from);
+            if (principal.isEmpty()) {
+                response.setStatus(HttpServletResponse.SC_UNAUTHORIZED);
+                response.setContentType("application/json");
+                response.getWriter().write("{\"error\": \"User no longer exists\", \"code\": \"INVALID_TOKEN\"}");
+                response.getWriter().flush();
+                return;
+            }
+            // Authorities come from the current user, so a role change applies without a new token
             UsernamePasswordAuthenticationToken authToken = new UsernamePasswordAuthenticationToken(
-                    username,
+                    principal.get(),
                     null,
-                    List.of(new SimpleGrantedAuthority("ROLE_" + role)));
+                    List.of(new SimpleGrantedAuthority("ROLE_" + principal.get().role())));
             SecurityContextHolder.getContext().setAuthentication(authToken);
         }
 
@@ -1,133 +1,148 @@
 package com.example.quiz.security;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
 import io.jsonwebtoken.ExpiredJwtException;
 import io.jsonwebtoken.MalformedJwtException;
 import io.jsonwebtoken.security.SecurityException;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.time.Duration;
+import java.time.Instant;
+
+/**
+ * Validates access and refresh tokens. Each token is verified at most once: successfully verified
+ * tokens are kept in a bounded cache until their own expiry, so repeat requests with the same token
+ * cost a single hash lookup. The blacklist is still checked on every call, by token id.
+ */
 @Component
 public class JwtTokenValidator {
     private static final Logger logger = LoggerFactory.getLogger(JwtTokenValidator.class);
     
     private final JwtUtil jwtUtil;
     private final TokenBlacklistService tokenBlacklistService;
+    private final Cache<String, VerifiedToken> verifiedTokens;
 
-    public JwtTokenValidator(JwtUtil jwtUtil, TokenBlacklistService tokenBlacklistService) {
+    public JwtTokenValidator(JwtUtil jwtUtil,
+                             TokenBlacklistService tokenBlacklistService,
+                             @Value("${app.jwt.verified-cache-size:10000}") long verifiedCacheSize) {
         this.jwtUtil = jwtUtil;
         this.tokenBlacklistService = tokenBlacklistService;
+        this.verifiedTokens = Caffeine.newBuilder()
+                .maximumSize(verifiedCacheSize)
+                .expireAfter(new Expiry<String, VerifiedToken>() {
+                    @Override
+                    public long expireAfterCreate(String token, VerifiedToken verified, long currentTime) {
+                        return Math.max(0, Duration.between(Instant.now(), verified.expiresAt()).toNanos());
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(String token, VerifiedToken verified, long currentTime, long currentDuration) {
+                        return currentDuration;
+                    }
+
+                    @Override
+                    public long expireAfterRead(String token, VerifiedToken verified, long currentTime, long currentDuration) {
+                        return currentDuration;
+                    }
+                })
+                .build();
     }
 
     public TokenValidationResult validateAccessToken(String token) {
+        return validate(token, "access", "Token", "JWT token");
+    }
+
+    public TokenValidationResult validateRefreshToken(String token) {
+        return validate(token, "refresh", "Refresh token", "refresh token");
+    }
+
+    private TokenValidationResult validate(String token, String expectedType, String label, String lowerLabel) {
         if (token == null || token.trim().isEmpty()) {
-            return TokenValidationResult.invalid("Token is null or empty");
+            return TokenValidationResult.invalid(label + " is null or empty");
         }
 
         try {
+            VerifiedToken verified = verify(token);
+
             // Check if token is blacklisted
-            if (tokenBlacklistService.isBlacklisted(token)) {
-                return TokenValidationResult.invalid("Token has been blacklisted");
+            if (tokenBlacklistService.isBlacklisted(verified)) {
+                return TokenValidationResult.invalid(label + " has been blacklisted");
             }
 
-            String username = jwtUtil.extractUsername(token);
-            String tokenType = jwtUtil.extractTokenType(token);
-            String role = jwtUtil.extractRole(token);
-
             // Validate token type
-            if (!"access".equals(tokenType)) {
-                return TokenValidationResult.invalid("Invalid token type. Expected access token");
+            if (!expectedType.equals(verified.type())) {
+                return TokenValidationResult.invalid("Invalid token type. Expected " + expectedType + " token");
             }
-
-            // Validate token
-            if (jwtUtil.validateToken(token, username)) {
-                return TokenValidationResult.valid(username, role);
-            } else {
-                return TokenValidationResult.invalid("Token validation failed");
+            if (verified.subject() == null) {
+                return TokenValidationResult.invalid(label + " validation failed");
             }
+            return TokenValidationResult.valid(verified);
 
         } catch (ExpiredJwtException e) {
-            logger.debug("JWT token expired: {}", e.getMessage());
-            return TokenValidationResult.expired("JWT token has expired");
+            logger.debug("{} expired: {}", label, e.getMessage());
+            return TokenValidationResult.expired(capitalize(lowerLabel) + " has expired");
         } catch (SecurityException | MalformedJwtException e) {
-            logger.debug("Invalid JWT token: {}", e.getMessage());
-            return TokenValidationResult.invalid("Invalid JWT token format");
+            logger.debug("Invalid {}: {}", lowerLabel, e.getMessage());
+            return TokenValidationResult.invalid("Invalid " + lowerLabel + " format");
         } catch (Exception e) {
-            logger.error("JWT validation error: {}", e.getMessage());
-            return TokenValidationResult.invalid("JWT validation failed: " + e.getMessage());
+            logger.error("{} validation error: {}", label, e.getMessage());
+            return TokenValidationResult.invalid(label + " validation failed: " + e.getMessage());
         }
     }
 
-    public TokenValidationResult validateRefreshToken(String token) {
-        if (token == null || token.trim().isEmpty()) {
-            return TokenValidationResult.invalid("Refresh token is null or empty");
+    /** Returns the token's verified claims, parsing it only on a cache miss or once the cached entry has expired. */
+    private VerifiedToken verify(String token) {
+        VerifiedToken cached = verifiedTokens.getIfPresent(token);
+        // The cache evicts lazily, so recheck expiry rather than trust a stale entry
+        if (cached != null && cached.expiresAt().isAfter(Instant.now())) {
+            return cached;
         }
-
-        try {
-            // Check if token is blacklisted
-            if (tokenBlacklistService.isBlacklisted(token)) {
-                return TokenValidationResult.invalid("Refresh token has been blacklisted");
-            }
-
-            String username = jwtUtil.extractUsername(token);
-            String tokenType = jwtUtil.extractTokenType(token);
-            String role = jwtUtil.extractRole(token);
-
-            // Validate token type
-            if (!"refresh".equals(tokenType)) {
-                return TokenValidationResult.invalid("Invalid token type. Expected refresh token");
-            }
-
-            // Validate refresh token
-            if (jwtUtil.validateRefreshToken(token, username)) {
-                return TokenValidationResult.valid(username, role);
-            } else {
-                return TokenValidationResult.invalid("Refresh token validation failed");
-            }
-
-        } catch (ExpiredJwtException e) {
-            logger.debug("Refresh token expired: {}", e.getMessage());
-            return TokenValidationResult.expired("Refresh token has expired");
-        } catch (SecurityException | MalformedJwtException e) {
-            logger.debug("Invalid refresh token: {}", e.getMessage());
-            return TokenValidationResult.invalid("Invalid refresh token format");
-        } catch (Exception e) {
-            logger.error("Refresh token validation error: {}", e.getMessage());
-            return TokenValidationResult.invalid("Refresh token validation failed: " + e.getMessage());
+        VerifiedToken verified = jwtUtil.parse(token);
+        if (verified.expiresAt() != null) {
+            verifiedTokens.put(token, verified);
         }
+        return verified;
+    }
+
+    private static String capitalize(String s) {
+        return Character.toUpperCase(s.charAt(0)) + s.substring(1);
     }
 
     public static class TokenValidationResult {
         private final boolean valid;
         private final boolean expired;
-        private final String username;
-        private final String role;
+        private final VerifiedToken token;
         private final String errorMessage;
 
-        private TokenValidationResult(boolean valid, boolean expired, String username, String role, String errorMessage) {
+        private TokenValidationResult(boolean valid, boolean expired, VerifiedToken token, String errorMessage) {
             this.valid = valid;
             this.expired = expired;
-            this.username = username;
-            this.role = role;
+            this.token = token;
             this.errorMessage = errorMessage;
         }
 
-        public static TokenValidationResult valid(String username, String role) {
-            return new TokenValidationResult(true, false, username, role, null);
+        public static TokenValidationResult valid(VerifiedToken token) {
+            return new TokenValidationResult(true, false, token, null);
         }
 
         public static TokenValidationResult invalid(String errorMessage) {
-            return new TokenValidationResult(false, false, null, null, errorMessage);
+            return new TokenValidationResult(false, false, null, errorMessage);
         }
 
         public static TokenValidationResult expired(String errorMessage) {
-            return new TokenValidationResult(false, true, null, null, errorMessage);
+            return new TokenValidationResult(false, true, null, errorMessage);
         }
 
         public boolean isValid() { return valid; }
         public boolean isExpired() { return expired; }
-        public String getUsername() { return username; }
-        public String getRole() { return role; }
+        public VerifiedToken getToken() { return token; }
+        public String getUsername() { return token != null ? token.subject() : null; }
+        public String getRole() { return token != null ? token.role() : null; }
         public String getErrorMessage() { return errorMessage; }
     }
 }
@@ -1,9 +1,11 @@
 package com.example.quiz.security;
 
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.SignatureAlgorithm;
 import io.jsonwebtoken.security.Keys;
+import jakarta.annotation.PostConstruct;
 import javax.crypto.SecretKey;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
@@ -11,6 +13,7 @@ import org.springframework.stereotype.Component;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.UUID;
 import java.util.function.Function;
 
 @Component
@@ -24,6 +27,26 @@ public class JwtUtil {
     @Value("${app.jwt.refreshTtlSeconds:604800}")
     private int refreshTokenValiditySeconds; // 7 days by default
 
+    // Derived once from the secret; both are immutable and thread-safe
+    private SecretKey signingKey;
+    private JwtParser parser;
+
+    @PostConstruct
+    void init() {
+        signingKey = getSigningKey();
+        parser = Jwts.parserBuilder().setSigningKey(signingKey).build();
+    }
+
+    /**
+     * Verifies the signature and expiry of a token and returns its claims. Callers needing more than
+     * one claim should use this rather than the {@code extract*} methods, which each re-verify.
+     *
+     * @throws io.jsonwebtoken.JwtException if the token is malformed, forged or expired
+     */
+    public VerifiedToken parse(String token) {
+        return VerifiedToken.from(token, extractAllClaims(token));
+    }
+
     public String extractUsername(String token) {
         return extractClaim(token, Claims::getSubject);
     }
@@ -38,26 +61,24 @@ public class JwtUtil {
     }
 
     private Claims extractAllClaims(String token) {
-        return Jwts.parserBuilder()
-                .setSigningKey(getSigningKey())
-                .build()
-                .parseClaimsJws(token)
-                .getBody();
+        return parser.parseClaimsJws(token).getBody();
     }
 
     public Boolean isTokenExpired(String token) {
         return extractExpiration(token).before(new Date());
     }
 
-    public String generateToken(String username, String role) {
+    public String generateToken(Long userId, String username, String role) {
         Map<String, Object> claims = new HashMap<>();
+        claims.put("uid", userId);
         claims.put("role", role);
         claims.put("type", "access");
         return createToken(claims, username, tokenValiditySeconds);
     }
     
-    public String generateRefreshToken(String username, String role) {
+    public String generateRefreshToken(Long userId, String username, String role) {
         Map<String, Object> claims = new HashMap<>();
+        claims.put("uid", userId);
         claims.put("role", role);
         claims.put("type", "refresh");
         return createToken(claims, username, refreshTokenValiditySeconds);
@@ -67,9 +88,10 @@ public class JwtUtil {
         return Jwts.builder()
                 .setClaims(claims)
                 .setSubject(subject)
+                .setId(UUID.randomUUID().toString())
                 .setIssuedAt(new Date(System.currentTimeMillis()))
                 .setExpiration(new Date(System.currentTimeMillis() + (long) validitySeconds * 1000))
-                .signWith(getSigningKey(), SignatureAlgorithm.HS256)
+                .signWith(signingKey, SignatureAlgorithm.HS256)
                 .compact();
     }
 
@@ -86,40 +108,22 @@ public class JwtUtil {
     }
 
     public Boolean validateToken(String token, String username) {
-        if (token == null || token.trim().isEmpty()) {
-            return false;
-        }
-        
-        try {
-            final String extractedUsername = extractUsername(token);
-            String tokenType = extractTokenType(token);
-            
-            // Ensure it's an access token, not a refresh token
-            if (!"access".equals(tokenType)) {
-                return false;
-            }
-            
-            return (extractedUsername != null && extractedUsername.equals(username) && !isTokenExpired(token));
-        } catch (Exception e) {
-            return false;
-        }
+        return validate(token, username, "access");
     }
     
     public Boolean validateRefreshToken(String token, String username) {
+        return validate(token, username, "refresh");
+    }
+
+    private boolean validate(String token, String username, String expectedType) {
         if (token == null || token.trim().isEmpty()) {
             return false;
         }
         
         try {
-            final String extractedUsername = extractUsername(token);
-            String tokenType = extractTokenType(token);
-            
-            // Ensure it's a refresh token
-            if (!"refresh".equals(tokenType)) {
-                return false;
-            }
-            
-            return (extractedUsername != null && extractedUsername.equals(username) && !isTokenExpired(token));
+            // parse() already rejects expired tokens
+            VerifiedToken verified = parse(token);
+            return expectedType.equals(verified.type()) && verified.subject() != null && verified.subject().equals(username);
         } catch (Exception e) {
             return false;
         }
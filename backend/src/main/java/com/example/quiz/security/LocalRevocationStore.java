@@ -0,0 +1,21 @@
+package com.example.quiz.security;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.List;
+
+/** Single-instance store: the local blacklist is the only copy, so there is nothing to share. */
+@Component
+@ConditionalOnProperty(name = "app.revocation.store", havingValue = "local", matchIfMissing = true)
+public class LocalRevocationStore implements RevocationStore {
+    @Override
+    public void revoke(String tokenId, Instant expiresAt) {
+    }
+
+    @Override
+    public List<Revocation> pollNew() {
+        return List.of();
+    }
+}
@@ -0,0 +1,151 @@
+package com.example.quiz.security;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * BCrypt on a dedicated, bounded pool. Hashing is deliberately slow, so running it on request
+ * threads lets a login burst take every core; here it can use at most {@code app.password.workers}
+ * of them. When more than {@code app.password.queue-capacity} hashes are already waiting, new ones
+ * are refused straight away with {@link OverloadedException} rather than queueing behind the burst.
+ */
+@Component
+public class PooledPasswordEncoder implements PasswordEncoder {
+    private final PasswordEncoder delegate = new BCryptPasswordEncoder();
+    private final ThreadPoolExecutor workers;
+    private final long timeoutMillis;
+    private final Timer encodeTimer;
+    private final Timer matchTimer;
+    private final Counter rejections;
+
+    public PooledPasswordEncoder(MeterRegistry meterRegistry,
+                                 @Value("${app.password.workers:0}") int workerCount,
+                                 @Value("${app.password.queue-capacity:64}") int queueCapacity,
+                                 @Value("${app.password.timeout-ms:10000}") long timeoutMillis) {
+        int threads = workerCount > 0 ? workerCount : Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+        AtomicInteger threadIndex = new AtomicInteger();
+        this.workers = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+            new ArrayBlockingQueue<>(queueCapacity),
+            r -> Thread.ofPlatform().name("password-" + threadIndex.incrementAndGet()).daemon(true).unstarted(r),
+            new ThreadPoolExecutor.AbortPolicy());
+        this.timeoutMillis = timeoutMillis;
+
+        this.encodeTimer = Timer.builder("auth.password.hash").tag("operation", "encode").register(meterRegistry);
+        this.matchTimer = Timer.builder("auth.password.hash").tag("operation", "match").register(meterRegistry);
+        this.rejections = Counter.builder("auth.password.rejections")
+            .description("Hashing requests refused because the queue was full")
+            .register(meterRegistry);
+        Gauge.builder("auth.password.queue.depth", workers, e -> e.getQueue().size()).register(meterRegistry);
+        Gauge.builder("auth.password.active", workers, ThreadPoolExecutor::getActiveCount).register(meterRegistry);
+    }
+
+    @Override
+    public String encode(CharSequence rawPassword) {
+        return run(() -> encodeTimer.record(() -> delegate.encode(rawPassword)));
+    }
+
+    @Override
+    public boolean matches(CharSequence rawPassword, String encodedPassword) {
+        return run(() -> matchTimer.record(() -> delegate.matches(rawPassword, encodedPassword)));
+    }
+
+    /**
+     * Hashes a batch in parallel across the pool. At most one hash per worker is in flight at a time,
+     * so interactive sign-ins keep their queue room while a bulk job runs.
+     */
+    public List<String> encodeAll(List<? extends CharSequence> rawPasswords) {
+        Semaphore inFlight = new Semaphore(workers.getMaximumPoolSize());
+        List<Future<String>> futures = new ArrayList<>(rawPasswords.size());
+        try {
+            for (CharSequence raw : rawPasswords) {
+                inFlight.acquire();
+                Callable<String> task = () -> {
+                    try {
+                        return encodeTimer.record(() -> delegate.encode(raw));
+                    } finally {
+                        inFlight.release();
+                    }
+                };
+                while (true) {
+                    try {
+                        futures.add(workers.submit(task));
+                        break;
+                    } catch (RejectedExecutionException e) {
+                        // Sign-ins have filled the queue; back off rather than competing with them
+                        Thread.sleep(50);
+                    }
+                }
+            }
+            List<String> hashes = new ArrayList<>(futures.size());
+            for (Future<String> future : futures) {
+                hashes.add(future.get());
+            }
+            return hashes;
+        } catch (InterruptedException e) {
+            futures.forEach(f -> f.cancel(true));
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while hashing passwords", e);
+        } catch (ExecutionException e) {
+            throw e.getCause() instanceof RuntimeException re ? re : new IllegalStateException(e.getCause());
+        }
+    }
+
+    @Override
+    public boolean upgradeEncoding(String encodedPassword) {
+        return delegate.upgradeEncoding(encodedPassword);
+    }
+
+    private <T> T run(Callable<T> task) {
+        Future<T> future;
+        try {
+            future = workers.submit(task);
+        } catch (RejectedExecutionException e) {
+            rejections.increment();
+            throw new OverloadedException("Too many sign-ins in progress, please retry shortly");
+        }
+        try {
+            return future.get(timeoutMillis, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while hashing password", e);
+        } catch (ExecutionException e) {
+            throw e.getCause() instanceof RuntimeException re ? re : new IllegalStateException(e.getCause());
+        } catch (TimeoutException e) {
+            future.cancel(true);
+            rejections.increment();
+            throw new OverloadedException("Password check timed out, please retry shortly");
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        workers.shutdownNow();
+    }
+
+    public static class OverloadedException extends RuntimeException {
+        public OverloadedException(String message) {
+            super(message);
+        }
+    }
+}
@@ -0,0 +1,18 @@
+package com.example.quiz.security;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Where revocations are published so every backend instance sees them. Each instance keeps its own
+ * {@link TokenBlacklistService} and pulls new revocations from the store periodically, so checking a
+ * token never needs a remote call.
+ */
+public interface RevocationStore {
+    void revoke(String tokenId, Instant expiresAt);
+
+    /** Revocations published since the previous call, from any instance. May repeat earlier ones. */
+    List<Revocation> pollNew();
+
+    record Revocation(String tokenId, Instant expiresAt) {}
+}
@@ -3,8 +3,19 @@ package com.example.quiz.security;
 import com.example.quiz.domain.Role;
 import com.example.quiz.domain.User;
 
+/** The authenticated user, as set on the security context by {@link JwtAuthenticationFilter}. */
 public record SessionUser(Long id, String name, String email, Role role) {
     public static SessionUser from(User u) { return new SessionUser(u.getId(), u.getName(), u.getEmail(), u.getRole()); }
+
+    /** Detached user carrying just these fields, enough to reference it from an attempt. */
+    public User toUser() {
+        User u = new User();
+        u.setId(id);
+        u.setName(name);
+        u.setEmail(email);
+        u.setRole(role);
+        return u;
+    }
 }
 
 
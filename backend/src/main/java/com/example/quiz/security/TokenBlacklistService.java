@@ -1,22 +1,250 @@
 package com.example.quiz.security;
 
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
-import java.util.Set;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicLongArray;
 
+/**
+ * Revoked tokens, keyed by token id and kept only until the token would have expired anyway.
+ *
+ * <p>Entries are filed into a hashed timer wheel by expiry; each tick sweeps one slot and drops the
+ * entries that are due. A Bloom filter sits in front of the map so the common "not revoked" answer
+ * needs no map lookup. It is rebuilt from the live entries after each sweep that evicted something,
+ * so it does not fill up with tokens that have long expired.
+ *
+ * <p>Revocations are also published to the configured {@link RevocationStore}, and revocations made
+ * on other instances are pulled from it every {@code app.revocation.poll-ms}. A revocation always
+ * takes effect locally first; if the store cannot be written it is kept and re-published on each
+ * poll until the store accepts it or the token expires.
+ */
 @Service
+@Slf4j
 public class TokenBlacklistService {
-    private final Set<String> blacklistedTokens = ConcurrentHashMap.newKeySet();
+    private static final double FALSE_POSITIVE_RATE = 0.01;
+
+    private final RevocationStore revocationStore;
+    private final ConcurrentHashMap<String, Instant> revoked = new ConcurrentHashMap<>();
+    private final Queue<RevocationStore.Revocation> unpublished = new ConcurrentLinkedQueue<>();
+    private final Queue<String>[] wheel;
+    private final long tickMillis;
+    private final int expectedEntries;
+    private final Counter filtered;
+    private final Counter misses;
+    private final Counter hits;
+    private final Counter evictions;
+
+    private volatile BloomFilter filter;
+    private long lastTick;
+
+    @SuppressWarnings("unchecked")
+    public TokenBlacklistService(RevocationStore revocationStore,
+                                 MeterRegistry meterRegistry,
+                                 @Value("${app.blacklist.wheel-slots:512}") int wheelSlots,
+                                 @Value("${app.blacklist.tick-ms:60000}") long tickMillis,
+                                 @Value("${app.blacklist.expected-entries:100000}") int expectedEntries) {
+        this.revocationStore = revocationStore;
+        this.wheel = new Queue[wheelSlots];
+        for (int i = 0; i < wheelSlots; i++) {
+            wheel[i] = new ConcurrentLinkedQueue<>();
+        }
+        this.tickMillis = tickMillis;
+        this.expectedEntries = expectedEntries;
+        this.filter = new BloomFilter(expectedEntries, FALSE_POSITIVE_RATE);
+        this.lastTick = System.currentTimeMillis() / tickMillis;
+
+        Gauge.builder("auth.token.blacklist.entries", revoked, ConcurrentHashMap::size)
+                .description("Revoked tokens that have not expired yet")
+                .register(meterRegistry);
+        Gauge.builder("auth.token.blacklist.bloom.bytes", this, s -> s.filter.sizeInBytes())
+                .description("Memory used by the blacklist Bloom filter")
+                .register(meterRegistry);
+        this.filtered = lookups(meterRegistry, "filtered");
+        this.misses = lookups(meterRegistry, "miss");
+        this.hits = lookups(meterRegistry, "hit");
+        this.evictions = Counter.builder("auth.token.blacklist.evictions")
+                .description("Revoked tokens dropped after expiring")
+                .register(meterRegistry);
+    }
+
+    private static Counter lookups(MeterRegistry meterRegistry, String result) {
+        return Counter.builder("auth.token.blacklist.lookups")
+                .description("Blacklist checks; 'filtered' were answered by the Bloom filter alone")
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+
+    public void blacklistToken(VerifiedToken token) {
+        if (record(token.id(), token.expiresAt())) {
+            publish(new RevocationStore.Revocation(token.id(), token.expiresAt()));
+        }
+    }
+
+    private boolean publish(RevocationStore.Revocation revocation) {
+        try {
+            revocationStore.revoke(revocation.tokenId(), revocation.expiresAt());
+            return true;
+        } catch (DataAccessException e) {
+            log.warn("Could not share revocation of token {}, will retry: {}", revocation.tokenId(), e.getMessage());
+            unpublished.add(revocation);
+            return false;
+        }
+    }
 
-    public void blacklistToken(String token) {
-        blacklistedTokens.add(token);
+    /** Pulls revocations made on other instances into the local blacklist, after retrying unshared ones. */
+    @Scheduled(fixedDelayString = "${app.revocation.poll-ms:1000}")
+    public void sync() {
+        Instant now = Instant.now();
+        for (int pending = unpublished.size(); pending > 0; pending--) {
+            RevocationStore.Revocation revocation = unpublished.poll();
+            if (revocation == null) {
+                break;
+            }
+            if (revocation.expiresAt().isAfter(now) && !publish(revocation)) {
+                // Store still failing; the rest wait for the next poll
+                break;
+            }
+        }
+        for (RevocationStore.Revocation revocation : revocationStore.pollNew()) {
+            record(revocation.tokenId(), revocation.expiresAt());
+        }
     }
 
-    public boolean isBlacklisted(String token) {
-        return blacklistedTokens.contains(token);
+    /** Adds an entry unless it is already present or expired; returns whether it was added. */
+    private synchronized boolean record(String tokenId, Instant expiresAt) {
+        if (expiresAt == null || !expiresAt.isAfter(Instant.now())) {
+            return false;
+        }
+        if (revoked.putIfAbsent(tokenId, expiresAt) != null) {
+            return false;
+        }
+        wheel[slotFor(expiresAt)].add(tokenId);
+        filter.add(tokenId);
+        return true;
     }
 
-    public void removeToken(String token) {
-        blacklistedTokens.remove(token);
+    public boolean isBlacklisted(VerifiedToken token) {
+        if (!filter.mightContain(token.id())) {
+            filtered.increment();
+            return false;
+        }
+        boolean blacklisted = revoked.containsKey(token.id());
+        (blacklisted ? hits : misses).increment();
+        return blacklisted;
+    }
+
+    /** Advances the wheel to the current time, evicting every entry whose token has expired. */
+    @Scheduled(fixedDelayString = "${app.blacklist.tick-ms:60000}")
+    public synchronized void expire() {
+        Instant now = Instant.now();
+        long nowTick = now.toEpochMilli() / tickMillis;
+        // After a long pause every slot is due, so one full turn is enough
+        long from = Math.max(lastTick + 1, nowTick - wheel.length + 1);
+        int evicted = 0;
+        for (long tick = from; tick <= nowTick; tick++) {
+            Queue<String> slot = wheel[(int) Math.floorMod(tick, (long) wheel.length)];
+            List<String> later = new ArrayList<>();
+            for (String id; (id = slot.poll()) != null; ) {
+                Instant expiresAt = revoked.get(id);
+                if (expiresAt == null) {
+                    continue;
+                }
+                if (expiresAt.isAfter(now)) {
+                    // Due on a later turn of the wheel
+                    later.add(id);
+                } else {
+                    revoked.remove(id);
+                    evicted++;
+                }
+            }
+            slot.addAll(later);
+        }
+        lastTick = nowTick;
+
+        if (evicted > 0) {
+            evictions.increment(evicted);
+            BloomFilter rebuilt = new BloomFilter(Math.max(expectedEntries, revoked.size() * 2), FALSE_POSITIVE_RATE);
+            revoked.keySet().forEach(rebuilt::add);
+            filter = rebuilt;
+        }
+    }
+
+    private int slotFor(Instant expiresAt) {
+        // Round up so an entry is never swept before its expiry
+        long tick = Math.ceilDiv(expiresAt.toEpochMilli(), tickMillis);
+        return (int) Math.floorMod(tick, (long) wheel.length);
+    }
+
+    /** Fixed-size Bloom filter over strings; bits are atomic so readers need no lock. */
+    private static final class BloomFilter {
+        private final AtomicLongArray bits;
+        private final long bitCount;
+        private final int hashCount;
+
+        BloomFilter(int expectedEntries, double falsePositiveRate) {
+            long m = (long) Math.ceil(-expectedEntries * Math.log(falsePositiveRate) / (Math.log(2) * Math.log(2)));
+            this.bits = new AtomicLongArray((int) Math.max(1, (m + 63) / 64));
+            this.bitCount = bits.length() * 64L;
+            this.hashCount = Math.max(1, (int) Math.round((double) m / expectedEntries * Math.log(2)));
+        }
+
+        void add(String key) {
+            long hash = hash(key);
+            long h1 = hash;
+            long h2 = hash >>> 32 | 1;
+            for (int i = 0; i < hashCount; i++) {
+                long bit = Math.floorMod(h1 + i * h2, bitCount);
+                int word = (int) (bit >>> 6);
+                long mask = 1L << bit;
+                long current;
+                while (((current = bits.get(word)) & mask) == 0 && !bits.compareAndSet(word, current, current | mask)) {
+                    // retry
+                }
+            }
+        }
+
+        boolean mightContain(String key) {
+            long hash = hash(key);
+            long h1 = hash;
+            long h2 = hash >>> 32 | 1;
+            for (int i = 0; i < hashCount; i++) {
+                long bit = Math.floorMod(h1 + i * h2, bitCount);
+                if ((bits.get((int) (bit >>> 6)) & (1L << bit)) == 0) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        long sizeInBytes() {
+            return bits.length() * 8L;
+        }
+
+        /** 64-bit FNV-1a over the chars, finished with the murmur3 mixer. */
+        private static long hash(String key) {
+            long h = 0xcbf29ce484222325L;
+            for (int i = 0; i < key.length(); i++) {
+                h ^= key.charAt(i);
+                h *= 0x100000001b3L;
+            }
+            h ^= h >>> 33;
+            h *= 0xff51afd7ed558ccdL;
+            h ^= h >>> 33;
+            h *= 0xc4ceb9fe1a85ec53L;
+            h ^= h >>> 33;
+            return h;
+        }
     }
 }
@@ -0,0 +1,44 @@
+package com.example.quiz.security;
+
+import io.jsonwebtoken.Claims;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Instant;
+import java.util.Base64;
+
+/**
+ * The claims of a token whose signature and expiry have already been checked. {@code id} is the
+ * token's {@code jti}, or a SHA-256 digest of the token for tokens issued without one. {@code userId}
+ * is null for tokens issued before it was added as the {@code uid} claim.
+ */
+public record VerifiedToken(String id, String subject, Long userId, String role, String type, Instant issuedAt, Instant expiresAt) {
+    static VerifiedToken from(String token, Claims claims) {
+        return new VerifiedToken(
+                claims.getId() != null ? claims.getId() : digest(token),
+                claims.getSubject(),
+                claims.get("uid", Number.class) != null ? claims.get("uid", Number.class).longValue() : null,
+                claims.get("role", String.class),
+                claims.get("type", String.class),
+                claims.getIssuedAt() != null ? claims.getIssuedAt().toInstant() : null,
+                claims.getExpiration() != null ? claims.getExpiration().toInstant() : null);
+    }
+
+    public boolean isAccessToken() {
+        return "access".equals(type);
+    }
+
+    public boolean isRefreshToken() {
+        return "refresh".equals(type);
+    }
+
+    private static String digest(String token) {
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.US_ASCII));
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(hash);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+}
@@ -0,0 +1,132 @@
+package com.example.quiz.service;
+
+import com.example.quiz.domain.Question;
+import com.example.quiz.domain.Quiz;
+import com.example.quiz.repo.QuestionRepository;
+import com.example.quiz.repo.QuizRepository;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * In-memory cache of compiled answer keys, so grading a submission needs no question reads. Each
+ * key records the {@link QuizVersions quiz version} it was compiled from and is only used while
+ * that is still the current version, so edits made through another node are picked up too. The
+ * version itself is a one-column primary-key read, memoised per quiz for
+ * {@code app.quiz.version-ttl-ms} (1s by default), so a busy quiz costs about one such read per
+ * second per node on top of the attempt inserts.
+ */
+@Component
+public class AnswerKeyCache {
+    private final QuizRepository quizRepository;
+    private final QuestionRepository questionRepository;
+    private final QuizVersions quizVersions;
+
+    private final ConcurrentHashMap<Long, AnswerKey> keys = new ConcurrentHashMap<>();
+
+    public AnswerKeyCache(QuizRepository quizRepository, QuestionRepository questionRepository, QuizVersions quizVersions) {
+        this.quizRepository = quizRepository;
+        this.questionRepository = questionRepository;
+        this.quizVersions = quizVersions;
+    }
+
+    public AnswerKey get(Long quizId) {
+        long current = quizVersions.current(quizId);
+        AnswerKey key = keys.get(quizId);
+        if (key != null && key.getVersion() >= current) {
+            return key;
+        }
+
+        AnswerKey compiled = compile(quizId);
+        // A slower compile of an older version must not replace a newer key
+        keys.merge(quizId, compiled, (old, fresh) -> fresh.getVersion() >= old.getVersion() ? fresh : old);
+        return compiled;
+    }
+
+    public void invalidate(Long quizId) {
+        quizVersions.invalidate(quizId);
+        keys.remove(quizId);
+    }
+
+    private AnswerKey compile(Long quizId) {
+        Quiz quiz = quizRepository.findById(quizId)
+            .orElseThrow(() -> new RuntimeException("Quiz not found"));
+        List<Question> questions = questionRepository.findWithOptionsByQuizId(quizId);
+
+        int[] offsets = new int[questions.size() + 1];
+        for (int i = 0; i < questions.size(); i++) {
+            Question question = questions.get(i);
+            // Null means options_json was never migrated; grading it as zero options would score every answer wrong
+            if (question.getOptions() == null) {
+                throw new IllegalStateException("Question " + question.getId() + " has no options_json; options migration has not run");
+            }
+            offsets[i + 1] = offsets[i] + question.getOptions().size();
+        }
+
+        boolean[] correct = new boolean[offsets[questions.size()]];
+        for (int i = 0; i < questions.size(); i++) {
+            List<Question.QuestionOption> options = questions.get(i).getOptions();
+            for (int j = 0; j < options.size(); j++) {
+                correct[offsets[i] + j] = options.get(j).isCorrect();
+            }
+        }
+
+        return new AnswerKey(quiz.getId(), quiz.getVersion(), quiz.getTitle(), quiz.getDifficulty(), offsets, correct);
+    }
+
+    /**
+     * Immutable, flattened answer key: the options of question {@code i} occupy
+     * {@code correct[offsets[i]] .. correct[offsets[i + 1] - 1]}.
+     */
+    public static final class AnswerKey {
+        private final Long quizId;
+        private final long version;
+        private final String title;
+        private final Quiz.Difficulty difficulty;
+        private final int[] offsets;
+        private final boolean[] correct;
+
+        AnswerKey(Long quizId, long version, String title, Quiz.Difficulty difficulty, int[] offsets, boolean[] correct) {
+            this.quizId = quizId;
+            this.version = version;
+            this.title = title;
+            this.difficulty = difficulty;
+            this.offsets = offsets;
+            this.correct = correct;
+        }
+
+        public Long getQuizId() { return quizId; }
+        public long getVersion() { return version; }
+        public int getQuestionCount() { return offsets.length - 1; }
+
+        /** Percentage score (0-100) for answers given as option indexes, one per question in order. */
+        public int score(List<Long> answers) {
+            int questionCount = getQuestionCount();
+            if (questionCount == 0 || answers == null) {
+                return 0;
+            }
+
+            int correctAnswers = 0;
+            for (int i = 0; i < Math.min(questionCount, answers.size()); i++) {
+                Long studentAnswer = answers.get(i);
+                int optionCount = offsets[i + 1] - offsets[i];
+                if (studentAnswer != null && studentAnswer >= 0 && studentAnswer < optionCount
+                        && correct[offsets[i] + studentAnswer.intValue()]) {
+                    correctAnswers++;
+                }
+            }
+
+            return (int) Math.round((double) correctAnswers / questionCount * 100);
+        }
+
+        /** Detached quiz carrying just the id and header fields, enough to reference it from an attempt. */
+        public Quiz toQuiz() {
+            Quiz quiz = new Quiz();
+            quiz.setId(quizId);
+            quiz.setTitle(title);
+            quiz.setDifficulty(difficulty);
+            return quiz;
+        }
+    }
+}
@@ -0,0 +1,92 @@
+package com.example.quiz.service;
+
+import com.example.quiz.repo.AttemptRepository;
+import com.example.quiz.repo.AttemptView;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+/**
+ * Streams attempts straight from a streaming MySQL result set to an output stream, one row at a
+ * time, so exports of any size run in constant memory. The export holds one pooled connection for
+ * its whole duration.
+ */
+@Service
+public class AttemptExportService {
+    private static final String CSV_HEADER = "id,studentId,studentName,quizId,quizTitle,score,createdAt\n";
+
+    public enum Format { NDJSON, CSV }
+
+    private final AttemptRepository attemptRepository;
+    private final ObjectMapper objectMapper;
+
+    public AttemptExportService(AttemptRepository attemptRepository, ObjectMapper objectMapper) {
+        this.attemptRepository = attemptRepository;
+        this.objectMapper = objectMapper;
+    }
+
+    @Transactional(readOnly = true)
+    public void export(Format format, Instant since, Long quizId, OutputStream out) throws IOException {
+        try (Stream<AttemptView> rows = attemptRepository.streamViews(since, quizId)) {
+            Iterator<AttemptView> it = rows.iterator();
+            if (format == Format.NDJSON) {
+                ObjectWriter rowWriter = objectMapper.writer().without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+                try (JsonGenerator generator = objectMapper.getFactory().createGenerator(out)) {
+                    generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+                    generator.setRootValueSeparator(null);
+                    while (it.hasNext()) {
+                        rowWriter.writeValue(generator, it.next());
+                        generator.writeRaw('\n');
+                    }
+                }
+            } else {
+                Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+                writer.write(CSV_HEADER);
+                while (it.hasNext()) {
+                    writeCsvRow(writer, it.next());
+                }
+                writer.flush();
+            }
+        }
+    }
+
+    private static void writeCsvRow(Writer writer, AttemptView row) throws IOException {
+        writer.write(String.valueOf(row.id()));
+        writer.write(',');
+        writer.write(String.valueOf(row.studentId()));
+        writer.write(',');
+        writer.write(csv(row.studentName()));
+        writer.write(',');
+        writer.write(String.valueOf(row.quizId()));
+        writer.write(',');
+        writer.write(csv(row.quizTitle()));
+        writer.write(',');
+        writer.write(Integer.toString(row.score()));
+        writer.write(',');
+        writer.write(row.createdAt() != null ? row.createdAt().toString() : "");
+        writer.write('\n');
+    }
+
+    private static String csv(String value) {
+        if (value == null) {
+            return "";
+        }
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+            return value;
+        }
+        return '"' + value.replace("\"", "\"\"") + '"';
+    }
+}
@@ -1,51 +1,90 @@
 package com.example.quiz.service;
 
 import com.example.quiz.domain.Attempt;
-import com.example.quiz.domain.Question;
+import com.example.quiz.domain.AttemptOutboxEvent;
 import com.example.quiz.domain.Quiz;
 import com.example.quiz.domain.User;
+import com.example.quiz.repo.AttemptOutboxRepository;
 import com.example.quiz.repo.AttemptRepository;
-import com.example.quiz.repo.QuestionRepository;
+import com.example.quiz.repo.AttemptView;
 import com.example.quiz.repo.QuizRepository;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.util.List;
 import java.util.Optional;
+import java.util.function.Consumer;
 
 @Service
 public class AttemptService {
     private final AttemptRepository attemptRepository;
+    private final AttemptOutboxRepository outboxRepository;
     private final QuizRepository quizRepository;
-    private final QuestionRepository questionRepository;
+    private final AnswerKeyCache answerKeyCache;
+    private final AttemptStatistics attemptStatistics;
+    private final TransactionTemplate transactionTemplate;
+    private final AttemptWriteBehindBuffer writeBehindBuffer; // null unless write-behind is enabled
 
-    public AttemptService(AttemptRepository attemptRepository, QuizRepository quizRepository, QuestionRepository questionRepository) {
+    public AttemptService(AttemptRepository attemptRepository, AttemptOutboxRepository outboxRepository,
+                          QuizRepository quizRepository, AnswerKeyCache answerKeyCache, AttemptStatistics attemptStatistics,
+                          TransactionTemplate transactionTemplate, ObjectProvider<AttemptWriteBehindBuffer> writeBehindBuffer) {
         this.attemptRepository = attemptRepository;
+        this.outboxRepository = outboxRepository;
         this.quizRepository = quizRepository;
-        this.questionRepository = questionRepository;
+        this.answerKeyCache = answerKeyCache;
+        this.attemptStatistics = attemptStatistics;
+        this.transactionTemplate = transactionTemplate;
+        this.writeBehindBuffer = writeBehindBuffer.getIfAvailable();
     }
 
     public Attempt saveAttempt(Attempt attempt) {
-        return attemptRepository.save(attempt);
+        return saveAttempt(attempt, persisted -> { });
     }
 
-    public List<Attempt> getAttemptsByStudent(User student) {
-        return attemptRepository.findByStudent(student);
+    private Attempt saveAttempt(Attempt attempt, Consumer<Attempt> alsoInTransaction) {
+        boolean isNew = attempt.getId() == null;
+        // New attempts are published to result-service through the outbox, committed atomically with the insert
+        Attempt saved = transactionTemplate.execute(status -> {
+            Attempt persisted = attemptRepository.save(attempt);
+            if (isNew) {
+                outboxRepository.save(AttemptOutboxEvent.of(persisted));
+            }
+            alsoInTransaction.accept(persisted);
+            return persisted;
+        });
+        if (isNew) {
+            attemptStatistics.record(saved.getScore());
+        } else {
+            // Running min/max cannot be un-applied, so re-seed on the rare in-place update
+            attemptStatistics.rebuild();
+        }
+        return saved;
+    }
+
+    public List<AttemptView> getAttemptsByStudent(Long studentId) {
+        return attemptRepository.findViewsByStudentId(studentId);
     }
 
-    public List<Attempt> getAttemptsByQuiz(Quiz quiz) {
-        return attemptRepository.findByQuiz(quiz);
+    public List<AttemptView> getAttemptsByQuiz(Long quizId) {
+        return attemptRepository.findViewsByQuizId(quizId);
     }
 
     public Optional<Attempt> getAttemptById(Long id) {
         return attemptRepository.findById(id);
     }
 
-    public List<Attempt> getAllAttempts() {
-        return attemptRepository.findAll();
+    public List<AttemptView> getAllAttempts() {
+        return attemptRepository.findViews();
     }
 
     public void deleteAttempt(Long id) {
-        attemptRepository.deleteById(id);
+        // result-service learns of the deletion through the outbox, like it learns of new attempts
+        transactionTemplate.executeWithoutResult(status -> attemptRepository.findViewById(id).ifPresent(attempt -> {
+            attemptRepository.deleteById(id);
+            outboxRepository.save(AttemptOutboxEvent.deletionOf(attempt));
+        }));
+        attemptStatistics.rebuild();
     }
 
     public Attempt attempt(User student, Long quizId) {
@@ -57,55 +96,40 @@ public class AttemptService {
         attempt.setQuiz(quiz);
         attempt.setScore(0); // Initial score
         
-        return attemptRepository.save(attempt);
+        return saveAttempt(attempt);
     }
 
-    public List<Attempt> attemptsFor(User student) {
-        return attemptRepository.findByStudent(student);
+    public List<AttemptView> attemptsFor(Long studentId) {
+        return attemptRepository.findViewsByStudentId(studentId);
     }
 
     public Attempt submitAttempt(Long quizId, User student, List<Long> answers) {
-        Quiz quiz = quizRepository.findById(quizId)
-            .orElseThrow(() -> new RuntimeException("Quiz not found"));
-        
-        // Calculate score based on answers
-        int score = calculateScore(quizId, answers);
-        
-        Attempt attempt = new Attempt();
-        attempt.setStudent(student);
-        attempt.setQuiz(quiz);
-        attempt.setScore(score);
-        
-        return attemptRepository.save(attempt);
+        Attempt attempt = grade(quizId, student, answers);
+        if (writeBehindBuffer == null) {
+            return saveAttempt(attempt);
+        }
+        Attempt saved = writeBehindBuffer.submit(attempt);
+        attemptStatistics.record(saved.getScore());
+        return saved;
     }
 
-    private int calculateScore(Long quizId, List<Long> answers) {
-        Quiz quiz = quizRepository.findById(quizId)
-            .orElseThrow(() -> new RuntimeException("Quiz not found"));
-        
-        List<Question> questions = questionRepository.findByQuiz(quiz);
-        
-        if (questions.isEmpty()) {
-            return 0;
-        }
-        
-        int correctAnswers = 0;
-        
-        // Compare each answer with the correct option
-        for (int i = 0; i < Math.min(questions.size(), answers.size()); i++) {
-            Question question = questions.get(i);
-            Long studentAnswer = answers.get(i); // This is the option index
-            
-            // Check if the student's answer index corresponds to a correct option
-            if (studentAnswer != null && studentAnswer >= 0 && studentAnswer < question.getOptions().size()) {
-                Question.QuestionOption selectedOption = question.getOptions().get(studentAnswer.intValue());
-                if (selectedOption.isCorrect()) {
-                    correctAnswers++;
-                }
-            }
-        }
-        
-        // Calculate percentage score
-        return (int) Math.round((double) correctAnswers / questions.size() * 100);
+    /**
+     * Grades and saves a submission, running {@code alsoInTransaction} in the insert's transaction;
+     * if it throws, the attempt is not saved. Bypasses the write-behind buffer.
+     */
+    public Attempt submitAttempt(Long quizId, User student, List<Long> answers, Consumer<Attempt> alsoInTransaction) {
+        return saveAttempt(grade(quizId, student, answers), alsoInTransaction);
+    }
+
+    private Attempt grade(Long quizId, User student, List<Long> answers) {
+        // Grading runs against the cached answer key; on a warm cache the only other DB access is the
+        // memoised quiz version check (see AnswerKeyCache)
+        AnswerKeyCache.AnswerKey answerKey = answerKeyCache.get(quizId);
+
+        Attempt attempt = new Attempt();
+        attempt.setStudent(student);
+        attempt.setQuiz(answerKey.toQuiz());
+        attempt.setScore(answerKey.score(answers));
+        return attempt;
     }
 }
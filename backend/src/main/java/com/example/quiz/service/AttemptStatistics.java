@@ -0,0 +1,69 @@
+package com.example.quiz.service;
+
+import com.example.quiz.repo.AttemptRepository;
+import com.example.quiz.repo.ScoreAggregate;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Running count, sum, min and max over all attempt scores, so the analytics summary is O(1).
+ * Seeded from a single aggregate query before the web server starts and updated on every attempt
+ * written through {@link AttemptService}. The totals live in one immutable record swapped
+ * atomically, so a re-seed never interleaves with a concurrent update or a read; an attempt
+ * committed while the aggregate query runs may still be missed or counted twice until the next
+ * re-seed.
+ *
+ * <p>Each backend node only observes its own writes; with several nodes, set
+ * {@code app.analytics.resync-cron} to periodically re-seed from the database.
+ */
+@Component
+@Slf4j
+public class AttemptStatistics {
+    private final AttemptRepository attemptRepository;
+
+    private final AtomicReference<Totals> totals = new AtomicReference<>(Totals.EMPTY);
+
+    public AttemptStatistics(AttemptRepository attemptRepository) {
+        this.attemptRepository = attemptRepository;
+    }
+
+    @PostConstruct
+    public void rebuild() {
+        ScoreAggregate aggregate = attemptRepository.aggregateScores();
+        totals.set(new Totals(aggregate.count(), aggregate.sum(),
+            aggregate.min() != null ? aggregate.min() : Integer.MAX_VALUE,
+            aggregate.max() != null ? aggregate.max() : Integer.MIN_VALUE));
+        log.info("Attempt statistics seeded from {} attempts", aggregate.count());
+    }
+
+    @Scheduled(cron = "${app.analytics.resync-cron:-}")
+    public void resync() {
+        rebuild();
+    }
+
+    public void record(int score) {
+        totals.updateAndGet(t -> t.plus(score));
+    }
+
+    public Snapshot snapshot() {
+        Totals t = totals.get();
+        if (t.count() == 0) {
+            return new Snapshot(0, 0, 0, 0);
+        }
+        return new Snapshot(t.count(), (double) t.sum() / t.count(), t.max(), t.min());
+    }
+
+    private record Totals(long count, long sum, int min, int max) {
+        static final Totals EMPTY = new Totals(0, 0, Integer.MAX_VALUE, Integer.MIN_VALUE);
+
+        Totals plus(int score) {
+            return new Totals(count + 1, sum + score, Math.min(min, score), Math.max(max, score));
+        }
+    }
+
+    public record Snapshot(long attemptCount, double avgScore, double maxScore, double minScore) {}
+}
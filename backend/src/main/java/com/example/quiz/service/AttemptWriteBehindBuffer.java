@@ -0,0 +1,227 @@
+package com.example.quiz.service;
+
+import com.example.quiz.domain.Attempt;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Calendar;
+import java.util.List;
+import java.util.TimeZone;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Write-behind buffer for graded attempts. Submissions are queued in a bounded buffer and a single
+ * flusher thread writes them as one JDBC batch per transaction, once the batch is full or the flush
+ * interval has elapsed.
+ *
+ * <p>A submission is only acknowledged after the batch containing it has committed, so a crash
+ * never loses an attempt the client was told about. The matching outbox rows for result-service
+ * are inserted in the same transaction. When the buffer stays full for longer than the offer
+ * timeout the submission is rejected with {@link BufferFullException}.
+ *
+ * <p>A submission whose acknowledgement times out while it is still queued is cancelled and never
+ * written, so the client can safely retry it. Once the flusher has claimed it for a batch, the
+ * submitter waits for that batch's outcome instead.
+ */
+@Component
+@Slf4j
+@ConditionalOnProperty(name = "app.attempts.write-behind.enabled", havingValue = "true")
+public class AttemptWriteBehindBuffer {
+    private static final String INSERT_SQL =
+        "insert into attempt (student_id, quiz_id, score, created_at) values (?, ?, ?, ?)";
+    private static final String INSERT_OUTBOX_SQL =
+        "insert into attempt_outbox (attempt_id, student_id, student_name, quiz_id, score, created_at) values (?, ?, ?, ?, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final BlockingQueue<PendingAttempt> queue;
+    private final int batchSize;
+    private final long flushIntervalMillis;
+    private final long offerTimeoutMillis;
+    private final long ackTimeoutMillis;
+    private final Calendar utc = Calendar.getInstance(TimeZone.getTimeZone("UTC"));
+    private final Thread flusher;
+
+    private volatile boolean running = true;
+
+    public AttemptWriteBehindBuffer(JdbcTemplate jdbcTemplate,
+                                    TransactionTemplate transactionTemplate,
+                                    @Value("${app.attempts.write-behind.capacity:10000}") int capacity,
+                                    @Value("${app.attempts.write-behind.batch-size:200}") int batchSize,
+                                    @Value("${app.attempts.write-behind.flush-interval-ms:50}") long flushIntervalMillis,
+                                    @Value("${app.attempts.write-behind.offer-timeout-ms:2000}") long offerTimeoutMillis,
+                                    @Value("${app.attempts.write-behind.ack-timeout-ms:10000}") long ackTimeoutMillis) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.queue = new ArrayBlockingQueue<>(capacity);
+        this.batchSize = batchSize;
+        this.flushIntervalMillis = flushIntervalMillis;
+        this.offerTimeoutMillis = offerTimeoutMillis;
+        this.ackTimeoutMillis = ackTimeoutMillis;
+        this.flusher = Thread.ofPlatform().name("attempt-write-behind").daemon(true).start(this::run);
+    }
+
+    /**
+     * Queues the attempt and blocks until it has been committed. The returned attempt carries the
+     * generated id when the driver reports one.
+     */
+    public Attempt submit(Attempt attempt) {
+        PendingAttempt pending = new PendingAttempt(attempt);
+        try {
+            if (!running || !queue.offer(pending, offerTimeoutMillis, TimeUnit.MILLISECONDS)) {
+                throw new BufferFullException("Attempt buffer is full, please retry shortly");
+            }
+            try {
+                return pending.ack().get(ackTimeoutMillis, TimeUnit.MILLISECONDS);
+            } catch (TimeoutException e) {
+                if (pending.cancel()) {
+                    throw new BufferFullException("Attempt was not saved in time, please retry shortly");
+                }
+                // Already part of a batch being written: its outcome decides, a retry could duplicate it
+                return pending.ack().get(ackTimeoutMillis, TimeUnit.MILLISECONDS);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Interrupted while saving attempt", e);
+        } catch (ExecutionException e) {
+            throw new RuntimeException("Failed to save attempt", e.getCause());
+        } catch (TimeoutException e) {
+            throw new RuntimeException("Attempt was not confirmed in time and may still be saved", e);
+        }
+    }
+
+    public int getQueuedCount() {
+        return queue.size();
+    }
+
+    private void run() {
+        List<PendingAttempt> batch = new ArrayList<>(batchSize);
+        while (running || !queue.isEmpty()) {
+            try {
+                PendingAttempt first = queue.poll(flushIntervalMillis, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(flushIntervalMillis);
+                while (batch.size() < batchSize) {
+                    long remaining = deadline - System.nanoTime();
+                    PendingAttempt next = remaining > 0 ? queue.poll(remaining, TimeUnit.NANOSECONDS) : queue.poll();
+                    if (next == null) {
+                        break;
+                    }
+                    batch.add(next);
+                }
+                flush(batch);
+            } catch (InterruptedException e) {
+                // Shutdown: drain whatever is left without waiting for more
+                running = false;
+                queue.drainTo(batch);
+                flush(batch);
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    private void flush(List<PendingAttempt> batch) {
+        // Skip submissions whose callers already gave up; the rest can no longer be cancelled
+        batch.removeIf(pending -> !pending.claim());
+        if (batch.isEmpty()) {
+            return;
+        }
+        try {
+            transactionTemplate.executeWithoutResult(status -> jdbcTemplate.execute((ConnectionCallback<Void>) con -> {
+                try (PreparedStatement ps = con.prepareStatement(INSERT_SQL, Statement.RETURN_GENERATED_KEYS)) {
+                    for (PendingAttempt pending : batch) {
+                        Attempt attempt = pending.attempt();
+                        ps.setLong(1, attempt.getStudent().getId());
+                        ps.setLong(2, attempt.getQuiz().getId());
+                        ps.setInt(3, attempt.getScore());
+                        ps.setTimestamp(4, Timestamp.from(attempt.getCreatedAt()), utc);
+                        ps.addBatch();
+                    }
+                    ps.executeBatch();
+                    try (ResultSet keys = ps.getGeneratedKeys()) {
+                        for (int i = 0; i < batch.size() && keys.next(); i++) {
+                            batch.get(i).attempt().setId(keys.getLong(1));
+                        }
+                    }
+                }
+                try (PreparedStatement ps = con.prepareStatement(INSERT_OUTBOX_SQL)) {
+                    for (PendingAttempt pending : batch) {
+                        Attempt attempt = pending.attempt();
+                        ps.setObject(1, attempt.getId());
+                        ps.setLong(2, attempt.getStudent().getId());
+                        ps.setString(3, attempt.getStudent().getName());
+                        ps.setLong(4, attempt.getQuiz().getId());
+                        ps.setInt(5, attempt.getScore());
+                        ps.setTimestamp(6, Timestamp.from(attempt.getCreatedAt()), utc);
+                        ps.addBatch();
+                    }
+                    ps.executeBatch();
+                }
+                return null;
+            }));
+            batch.forEach(pending -> pending.ack().complete(pending.attempt()));
+        } catch (Throwable e) {
+            // Fail this batch only; the flusher thread must survive to serve the next one
+            log.error("Failed to flush {} buffered attempts", batch.size(), e);
+            batch.forEach(pending -> pending.ack().completeExceptionally(e));
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        running = false;
+        flusher.join(TimeUnit.SECONDS.toMillis(30));
+    }
+
+    private static final class PendingAttempt {
+        private static final int QUEUED = 0, CLAIMED = 1, CANCELLED = 2;
+
+        private final Attempt attempt;
+        private final CompletableFuture<Attempt> ack = new CompletableFuture<>();
+        private final AtomicInteger state = new AtomicInteger(QUEUED);
+
+        PendingAttempt(Attempt attempt) {
+            this.attempt = attempt;
+        }
+
+        Attempt attempt() { return attempt; }
+        CompletableFuture<Attempt> ack() { return ack; }
+
+        /** Flusher side: takes the submission into a batch unless its caller has given up. */
+        boolean claim() {
+            return state.compareAndSet(QUEUED, CLAIMED);
+        }
+
+        /** Caller side: withdraws the submission unless a batch has already taken it. */
+        boolean cancel() {
+            return state.compareAndSet(QUEUED, CANCELLED);
+        }
+    }
+
+    public static class BufferFullException extends RuntimeException {
+        public BufferFullException(String message) {
+            super(message);
+        }
+    }
+}
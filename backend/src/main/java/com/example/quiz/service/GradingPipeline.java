@@ -0,0 +1,257 @@
+package com.example.quiz.service;
+
+import com.example.quiz.domain.GradingSubmission;
+import com.example.quiz.domain.User;
+import com.example.quiz.repo.AttemptRepository;
+import com.example.quiz.repo.AttemptView;
+import com.example.quiz.repo.GradingSubmissionRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Grades submissions off the request thread. A submission is validated against the cached answer
+ * key, persisted as a {@link GradingSubmission} before it is acknowledged and handed to a bounded
+ * worker pool. Receipts are read back from that table, so any instance can answer a poll and a
+ * restart loses nothing.
+ *
+ * <p>A submission whose claim has gone stale (the instance grading it stopped) is claimed and
+ * graded by another instance. The attempt insert and the submission's completion commit together,
+ * and completion only succeeds while the submission is still pending, so each submission produces
+ * at most one attempt.
+ */
+@Service
+@Slf4j
+public class GradingPipeline {
+    private static final TypeReference<List<Long>> ANSWERS = new TypeReference<>() {};
+
+    private final AttemptService attemptService;
+    private final AnswerKeyCache answerKeyCache;
+    private final GradingSubmissionRepository submissionRepository;
+    private final AttemptRepository attemptRepository;
+    private final ObjectMapper objectMapper;
+    private final ThreadPoolExecutor workers;
+    private final Duration receiptTtl;
+    private final Duration reclaimAfter;
+    private final long remotePollMillis;
+    // Completes when a submission graded on this instance is done, so polls here can wait for it
+    private final ConcurrentHashMap<String, CompletableFuture<Void>> inFlight = new ConcurrentHashMap<>();
+
+    public GradingPipeline(AttemptService attemptService,
+                           AnswerKeyCache answerKeyCache,
+                           GradingSubmissionRepository submissionRepository,
+                           AttemptRepository attemptRepository,
+                           ObjectMapper objectMapper,
+                           @Value("${app.grading.workers:8}") int workerCount,
+                           @Value("${app.grading.queue-capacity:1000}") int queueCapacity,
+                           @Value("${app.grading.receipt-ttl-seconds:600}") long receiptTtlSeconds,
+                           @Value("${app.grading.reclaim-after-seconds:120}") long reclaimAfterSeconds,
+                           @Value("${app.grading.remote-poll-ms:500}") long remotePollMillis) {
+        this.attemptService = attemptService;
+        this.answerKeyCache = answerKeyCache;
+        this.submissionRepository = submissionRepository;
+        this.attemptRepository = attemptRepository;
+        this.objectMapper = objectMapper;
+        this.receiptTtl = Duration.ofSeconds(receiptTtlSeconds);
+        this.reclaimAfter = Duration.ofSeconds(reclaimAfterSeconds);
+        this.remotePollMillis = remotePollMillis;
+        AtomicInteger threadIndex = new AtomicInteger();
+        this.workers = new ThreadPoolExecutor(workerCount, workerCount, 0L, TimeUnit.MILLISECONDS,
+            new ArrayBlockingQueue<>(queueCapacity),
+            r -> Thread.ofPlatform().name("grading-" + threadIndex.incrementAndGet()).daemon(true).unstarted(r),
+            new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    /**
+     * Validates, persists and enqueues a submission.
+     *
+     * @throws RejectedExecutionException when the grading queue is full
+     */
+    public Receipt submit(Long quizId, User student, List<Long> answers) {
+        if (quizId == null || answers == null) {
+            throw new IllegalArgumentException("quizId and answers are required");
+        }
+        // Fails fast for unknown quizzes and warms the key for the worker
+        answerKeyCache.get(quizId);
+
+        Instant now = Instant.now();
+        GradingSubmission submission = new GradingSubmission();
+        submission.setId(UUID.randomUUID().toString());
+        submission.setStudentId(student.getId());
+        submission.setStudentName(student.getName());
+        submission.setQuizId(quizId);
+        submission.setAnswers(writeAnswers(answers));
+        submission.setSubmittedAt(now);
+        submission.setClaimedAt(now);
+        submissionRepository.save(submission);
+        try {
+            enqueue(submission.getId(), student, quizId, answers);
+        } catch (RejectedExecutionException e) {
+            submissionRepository.deleteById(submission.getId());
+            throw e;
+        }
+        return toReceipt(submission);
+    }
+
+    /** Looks up a receipt, only returning it to the student who submitted it. */
+    public Optional<Receipt> find(String receiptId, Long studentId) {
+        return submissionRepository.findById(receiptId)
+            .filter(s -> s.getStudentId().equals(studentId))
+            .map(this::toReceipt);
+    }
+
+    /**
+     * Completes with the receipt's latest state once grading finishes or {@code waitMs} elapses. When
+     * another instance is grading it, the state is re-read after a short pause instead.
+     */
+    public CompletableFuture<Receipt> await(Receipt receipt, long waitMs) {
+        if (receipt.status() != GradingSubmission.Status.PENDING || waitMs <= 0) {
+            return CompletableFuture.completedFuture(receipt);
+        }
+        CompletableFuture<Void> done = inFlight.get(receipt.id());
+        CompletableFuture<Void> waited = done != null
+            ? done.copy().completeOnTimeout(null, waitMs, TimeUnit.MILLISECONDS)
+            : CompletableFuture.runAsync(() -> { },
+                CompletableFuture.delayedExecutor(Math.min(waitMs, remotePollMillis), TimeUnit.MILLISECONDS));
+        return waited.thenApplyAsync(ignored -> find(receipt.id(), receipt.studentId()).orElse(receipt));
+    }
+
+    private void enqueue(String id, User student, Long quizId, List<Long> answers) {
+        CompletableFuture<Void> done = new CompletableFuture<>();
+        inFlight.put(id, done);
+        try {
+            workers.execute(() -> {
+                try {
+                    grade(id, student, quizId, answers);
+                } finally {
+                    inFlight.remove(id);
+                    done.complete(null);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            inFlight.remove(id);
+            throw e;
+        }
+    }
+
+    private void grade(String id, User student, Long quizId, List<Long> answers) {
+        try {
+            attemptService.submitAttempt(quizId, student, answers, attempt -> {
+                if (submissionRepository.complete(id, attempt.getId()) == 0) {
+                    // Only a submission another grading already finished may be skipped quietly
+                    if (submissionRepository.findStatusById(id).isPresent()) {
+                        throw new AlreadyGradedException();
+                    }
+                    log.error("Submission {} disappeared while being graded; its attempt was not saved", id);
+                    throw new IllegalStateException("Submission " + id + " no longer exists");
+                }
+            });
+        } catch (AlreadyGradedException e) {
+            log.debug("Receipt {} was already graded elsewhere, discarded this grading", id);
+        } catch (RuntimeException e) {
+            log.warn("Grading failed for receipt {}: {}", id, e.getMessage());
+            String error = String.valueOf(e.getMessage());
+            submissionRepository.fail(id, error.length() > 500 ? error.substring(0, 500) : error);
+        }
+    }
+
+    /** Takes over pending submissions whose instance stopped before grading them. */
+    @Scheduled(fixedDelayString = "${app.grading.reclaim-sweep-ms:30000}")
+    public void reclaimStaleSubmissions() {
+        int room = workers.getQueue().remainingCapacity();
+        if (room == 0) {
+            return;
+        }
+        Instant now = Instant.now();
+        Instant cutoff = now.minus(reclaimAfter);
+        int reclaimed = 0;
+        for (String id : submissionRepository.findStaleIds(cutoff, PageRequest.ofSize(room))) {
+            if (inFlight.containsKey(id) || submissionRepository.claim(id, now, cutoff) == 0) {
+                continue;
+            }
+            GradingSubmission submission = submissionRepository.findById(id).orElse(null);
+            if (submission == null) {
+                continue;
+            }
+            User student = new User();
+            student.setId(submission.getStudentId());
+            student.setName(submission.getStudentName());
+            try {
+                enqueue(id, student, submission.getQuizId(), readAnswers(submission.getAnswers()));
+                reclaimed++;
+            } catch (RejectedExecutionException e) {
+                // The claim goes stale again and a later sweep retries it
+                break;
+            }
+        }
+        if (reclaimed > 0) {
+            log.info("Reclaimed {} pending submissions from stopped instances", reclaimed);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${app.grading.receipt-sweep-ms:60000}")
+    public void evictExpiredReceipts() {
+        submissionRepository.deleteFinishedBefore(Instant.now().minus(receiptTtl));
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        workers.shutdown();
+        if (!workers.awaitTermination(30, TimeUnit.SECONDS)) {
+            log.warn("Grading workers did not finish within 30s, {} submissions left for another instance", workers.getQueue().size());
+        }
+    }
+
+    private Receipt toReceipt(GradingSubmission submission) {
+        AttemptView attempt = submission.getStatus() == GradingSubmission.Status.COMPLETED && submission.getAttemptId() != null
+            ? attemptRepository.findViewById(submission.getAttemptId()).orElse(null)
+            : null;
+        return new Receipt(submission.getId(), submission.getStudentId(), submission.getQuizId(),
+            submission.getSubmittedAt(), submission.getStatus(), attempt, submission.getError());
+    }
+
+    private String writeAnswers(List<Long> answers) {
+        try {
+            return objectMapper.writeValueAsString(answers);
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Invalid answers", e);
+        }
+    }
+
+    private List<Long> readAnswers(String json) {
+        try {
+            return objectMapper.readValue(json, ANSWERS);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Stored answers are not valid JSON", e);
+        }
+    }
+
+    /** Snapshot of a submission; {@code attempt} is set once completed, {@code error} once failed. */
+    public record Receipt(String id, Long studentId, Long quizId, Instant submittedAt,
+                          GradingSubmission.Status status, AttemptView attempt, String error) {}
+
+    private static class AlreadyGradedException extends RuntimeException {
+        AlreadyGradedException() {
+            super(null, null, false, false);
+        }
+    }
+}
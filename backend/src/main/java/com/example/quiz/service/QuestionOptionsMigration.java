@@ -0,0 +1,57 @@
+package com.example.quiz.service;
+
+import com.example.quiz.domain.Question;
+import com.example.quiz.repo.QuestionRepository;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Moves options from the legacy {@code question_options} table into {@code options_json}, a batch
+ * of questions per transaction, and deletes the migrated rows. Runs at startup before requests are
+ * served; once every question is migrated it costs one empty query. Other instances may already be
+ * serving, so each batch is locked and only questions still without options are touched.
+ */
+@Component
+@Slf4j
+@ConditionalOnProperty(name = "app.questions.migrate-options", havingValue = "true", matchIfMissing = true)
+public class QuestionOptionsMigration {
+    private final QuestionRepository questionRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final int batchSize;
+
+    public QuestionOptionsMigration(QuestionRepository questionRepository,
+                                    TransactionTemplate transactionTemplate,
+                                    @Value("${app.questions.migrate-batch-size:500}") int batchSize) {
+        this.questionRepository = questionRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.batchSize = batchSize;
+    }
+
+    @PostConstruct
+    public void migrate() {
+        int migrated = 0;
+        List<Long> ids;
+        while (!(ids = questionRepository.findIdsWithLegacyOptions(PageRequest.ofSize(batchSize))).isEmpty()) {
+            List<Long> batch = ids;
+            migrated += transactionTemplate.execute(status -> {
+                List<Question> questions = questionRepository.findWithLegacyOptionsByIdIn(batch);
+                for (Question question : questions) {
+                    question.setOptions(new ArrayList<>(question.getLegacyOptions()));
+                    question.getLegacyOptions().clear();
+                }
+                return questions.size();
+            });
+        }
+        if (migrated > 0) {
+            log.info("Migrated options of {} questions to options_json", migrated);
+        }
+    }
+}
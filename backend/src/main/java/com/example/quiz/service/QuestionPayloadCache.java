@@ -0,0 +1,87 @@
+package com.example.quiz.service;
+
+import com.example.quiz.domain.Question;
+import com.example.quiz.repo.QuestionRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
+import java.util.List;
+
+/**
+ * Pre-serialised question lists as students see them: no {@code correct} flags, so they can be sent
+ * as-is. Payloads are compiled when a quiz's questions are saved (or on first read), kept in a
+ * cache bounded by total bytes and keyed by the {@link QuizVersions quiz version}, so an edit made
+ * through another node is served here too once the version is re-read. The strong ETag carries
+ * the version as well as a digest of the content.
+ */
+@Component
+public class QuestionPayloadCache {
+    private final QuestionRepository questionRepository;
+    private final QuizVersions quizVersions;
+    private final ObjectMapper objectMapper;
+    private final Cache<VersionedQuiz, Payload> payloads;
+
+    public QuestionPayloadCache(QuestionRepository questionRepository,
+                                QuizVersions quizVersions,
+                                ObjectMapper objectMapper,
+                                @Value("${app.quiz.payload-cache-bytes:67108864}") long maxBytes) {
+        this.questionRepository = questionRepository;
+        this.quizVersions = quizVersions;
+        this.objectMapper = objectMapper;
+        this.payloads = Caffeine.newBuilder()
+            .maximumWeight(maxBytes)
+            .weigher((VersionedQuiz key, Payload payload) -> payload.body().length)
+            .build();
+    }
+
+    public Payload get(Long quizId) {
+        return payloads.get(new VersionedQuiz(quizId, quizVersions.current(quizId)), this::compile);
+    }
+
+    /** Compiles the payload of the current version and drops those of older ones. */
+    public void rebuild(Long quizId) {
+        invalidate(quizId);
+        get(quizId);
+    }
+
+    public void invalidate(Long quizId) {
+        quizVersions.invalidate(quizId);
+        payloads.asMap().keySet().removeIf(key -> key.quizId().equals(quizId));
+    }
+
+    private Payload compile(VersionedQuiz key) {
+        // Same ordering as the answer key used for grading
+        List<StudentQuestion> questions = questionRepository.findWithOptionsByQuizId(key.quizId()).stream()
+            .map(StudentQuestion::from)
+            .toList();
+        try {
+            byte[] body = objectMapper.writeValueAsBytes(questions);
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(body);
+            return new Payload(body, "\"" + key.version() + "-" + Base64.getUrlEncoder().withoutPadding().encodeToString(digest) + "\"");
+        } catch (JsonProcessingException | NoSuchAlgorithmException e) {
+            throw new IllegalStateException("Failed to compile questions for quiz " + key.quizId(), e);
+        }
+    }
+
+    private record VersionedQuiz(Long quizId, long version) {}
+
+    public record Payload(byte[] body, String etag) {}
+
+    record StudentQuestion(Long id, String text, List<StudentOption> options) {
+        static StudentQuestion from(Question question) {
+            List<StudentOption> options = question.getOptions() == null ? List.of() : question.getOptions().stream()
+                .map(option -> new StudentOption(option.getText()))
+                .toList();
+            return new StudentQuestion(question.getId(), question.getText(), options);
+        }
+    }
+
+    record StudentOption(String text) {}
+}
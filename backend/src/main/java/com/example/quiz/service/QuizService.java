@@ -4,19 +4,45 @@ import com.example.quiz.domain.Quiz;
 import com.example.quiz.domain.Question;
 import com.example.quiz.repo.QuizRepository;
 import com.example.quiz.repo.QuestionRepository;
+import jakarta.persistence.EntityManager;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
 
 @Service
 public class QuizService {
+    private static final String INSERT_QUESTION_SQL = "insert into question (text, quiz_id, position, options_json) values (?, ?, ?, ?)";
+
     private final QuizRepository quizRepository;
     private final QuestionRepository questionRepository;
+    private final AnswerKeyCache answerKeyCache;
+    private final QuestionPayloadCache questionPayloadCache;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final EntityManager entityManager;
+    private final Question.OptionsConverter optionsConverter = new Question.OptionsConverter();
 
-    public QuizService(QuizRepository quizRepository, QuestionRepository questionRepository) {
+    public QuizService(QuizRepository quizRepository, QuestionRepository questionRepository,
+                       AnswerKeyCache answerKeyCache, QuestionPayloadCache questionPayloadCache,
+                       JdbcTemplate jdbcTemplate, TransactionTemplate transactionTemplate, EntityManager entityManager) {
         this.quizRepository = quizRepository;
         this.questionRepository = questionRepository;
+        this.answerKeyCache = answerKeyCache;
+        this.questionPayloadCache = questionPayloadCache;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.entityManager = entityManager;
     }
 
     public Quiz create(String title, Quiz.Difficulty difficulty) {
@@ -27,24 +53,112 @@ public class QuizService {
     }
 
     public List<Quiz> all() { return quizRepository.findAll(); }
-    public void delete(Long id) { quizRepository.deleteById(id); }
+    public void delete(Long id) {
+        quizRepository.deleteById(id);
+        answerKeyCache.invalidate(id);
+        questionPayloadCache.invalidate(id);
+    }
     
     public Optional<Quiz> findById(Long id) { return quizRepository.findById(id); }
     
     public List<Question> getQuestions(Long quizId) {
-        Quiz quiz = quizRepository.findById(quizId).orElseThrow();
-        return questionRepository.findByQuiz(quiz);
+        quizRepository.findById(quizId).orElseThrow();
+        // Same ordering as the answer key used for grading
+        return questionRepository.findWithOptionsByQuizId(quizId);
     }
     
+    /**
+     * Replaces the quiz's questions with {@code questions}, in that order. Questions whose id already
+     * belongs to the quiz keep it and are only written if something changed; questions missing from
+     * the list are deleted with set-based statements, and new ones are inserted in JDBC batches.
+     */
     public void saveQuestions(Long quizId, List<Question> questions) {
+        transactionTemplate.executeWithoutResult(status -> applyQuestions(quizId, questions));
+        // Other nodes see the bumped version; this one drops its keys right away
+        answerKeyCache.invalidate(quizId);
+        // Compile the student payload now so the first students to open the quiz hit the cache
+        questionPayloadCache.rebuild(quizId);
+    }
+
+    private void applyQuestions(Long quizId, List<Question> questions) {
         Quiz quiz = quizRepository.findById(quizId).orElseThrow();
-        // Clear existing questions
-        questionRepository.deleteByQuiz(quiz);
-        // Save new questions
-        for (Question question : questions) {
-            question.setQuiz(quiz);
-            questionRepository.save(question);
+        // Committed together with the question changes; also serialises concurrent saves of the quiz
+        quizRepository.bumpVersion(quizId);
+        Map<Long, Question> existing = new HashMap<>();
+        for (Question question : questionRepository.findWithOptionsByQuizId(quizId)) {
+            existing.put(question.getId(), question);
+        }
+
+        List<Question> inserts = new ArrayList<>();
+        for (int position = 0; position < questions.size(); position++) {
+            Question incoming = questions.get(position);
+            Question current = incoming.getId() != null ? existing.remove(incoming.getId()) : null;
+            if (current == null) {
+                incoming.setPosition(position);
+                inserts.add(incoming);
+                continue;
+            }
+            // Managed entity: Hibernate only writes the fields that actually changed
+            if (!Objects.equals(current.getPosition(), position)) {
+                current.setPosition(position);
+            }
+            if (!Objects.equals(current.getText(), incoming.getText())) {
+                current.setText(incoming.getText());
+            }
+            if (!sameOptions(current.getOptions(), incoming.getOptions())) {
+                current.setOptions(incoming.getOptions() == null ? new ArrayList<>() : new ArrayList<>(incoming.getOptions()));
+            }
+        }
+
+        if (!existing.isEmpty()) {
+            questionRepository.deleteOptionsByQuestionIds(existing.keySet());
+            questionRepository.deleteByIds(existing.keySet());
         }
+        if (!inserts.isEmpty()) {
+            // Pending updates go first so the connection sees a consistent state
+            entityManager.flush();
+            insertQuestions(quiz.getId(), inserts);
+        }
+    }
+
+    private void insertQuestions(Long quizId, List<Question> inserts) {
+        jdbcTemplate.execute((ConnectionCallback<Void>) con -> {
+            try (PreparedStatement ps = con.prepareStatement(INSERT_QUESTION_SQL, Statement.RETURN_GENERATED_KEYS)) {
+                for (Question question : inserts) {
+                    ps.setString(1, question.getText());
+                    ps.setLong(2, quizId);
+                    ps.setInt(3, question.getPosition());
+                    ps.setString(4, optionsConverter.convertToDatabaseColumn(question.getOptions()));
+                    ps.addBatch();
+                }
+                ps.executeBatch();
+                try (ResultSet keys = ps.getGeneratedKeys()) {
+                    for (int i = 0; i < inserts.size() && keys.next(); i++) {
+                        inserts.get(i).setId(keys.getLong(1));
+                    }
+                }
+            }
+            return null;
+        });
+    }
+
+    private static boolean sameOptions(List<Question.QuestionOption> a, List<Question.QuestionOption> b) {
+        int sizeA = a == null ? 0 : a.size();
+        int sizeB = b == null ? 0 : b.size();
+        if (sizeA != sizeB) {
+            return false;
+        }
+        for (int i = 0; i < sizeA; i++) {
+            if (!Objects.equals(a.get(i).getText(), b.get(i).getText()) || a.get(i).isCorrect() != b.get(i).isCorrect()) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /** Student-safe, pre-serialised questions for the quiz. */
+    public QuestionPayloadCache.Payload getStudentQuestions(Long quizId) {
+        return questionPayloadCache.get(quizId);
     }
 }
 
@@ -0,0 +1,41 @@
+package com.example.quiz.service;
+
+import com.example.quiz.repo.QuizRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * Each quiz's version as stored in the database, which {@link QuizService#saveQuestions} bumps in
+ * the same transaction as the question changes. Caches of derived data compare their entries
+ * against it, so an edit made through any node is picked up everywhere. Lookups are memoised for
+ * {@code app.quiz.version-ttl-ms}, which bounds how long another node can serve the old questions.
+ */
+@Component
+public class QuizVersions {
+    private final QuizRepository quizRepository;
+    private final Cache<Long, Long> versions;
+
+    public QuizVersions(QuizRepository quizRepository,
+                        @Value("${app.quiz.version-ttl-ms:1000}") long ttlMs,
+                        @Value("${app.quiz.version-cache-size:10000}") long maxSize) {
+        this.quizRepository = quizRepository;
+        this.versions = Caffeine.newBuilder()
+            .expireAfterWrite(Duration.ofMillis(ttlMs))
+            .maximumSize(maxSize)
+            .build();
+    }
+
+    public long current(Long quizId) {
+        return versions.get(quizId, id -> quizRepository.findVersionById(id)
+            .orElseThrow(() -> new RuntimeException("Quiz not found")));
+    }
+
+    /** Forgets the memoised version, so this node sees its own edits immediately. */
+    public void invalidate(Long quizId) {
+        versions.invalidate(quizId);
+    }
+}
@@ -0,0 +1,40 @@
+package com.example.quiz.service;
+
+import com.example.quiz.domain.User;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Evicts a user's cached principal whenever the user row is updated or deleted through JPA, so a
+ * role change or deletion takes effect on this node's next request rather than after the session
+ * cache TTL. Eviction waits for the commit, so a concurrent request cannot re-cache the old row.
+ */
+@Component
+public class SessionUserEvictionListener {
+    // Looked up lazily: UserService depends on the repository this listener is registered with
+    private final ObjectProvider<UserService> userService;
+
+    public SessionUserEvictionListener(ObjectProvider<UserService> userService) {
+        this.userService = userService;
+    }
+
+    @PostUpdate
+    @PostRemove
+    public void userChanged(User user) {
+        Long id = user.getId();
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    userService.getObject().evictSessionUser(id);
+                }
+            });
+        } else {
+            userService.getObject().evictSessionUser(id);
+        }
+    }
+}
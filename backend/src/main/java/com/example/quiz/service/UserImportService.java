@@ -0,0 +1,255 @@
+package com.example.quiz.service;
+
+import com.example.quiz.domain.Role;
+import com.example.quiz.repo.UserRepository;
+import com.example.quiz.security.PooledPasswordEncoder;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.stream.IntStream;
+
+/**
+ * Creates many accounts in one go. The input is streamed: rows are validated and de-duplicated as
+ * they are read, and each full batch is checked against existing accounts with one set-based
+ * query, hashed in parallel on the password pool and inserted as one JDBC batch. Every rejected row is reported with its line number; the rest are
+ * created.
+ */
+@Service
+@Slf4j
+public class UserImportService {
+    private static final String INSERT_SQL = "insert into users (name, email, password_hash, role) values (?, ?, ?, ?)";
+    private static final int LOOKUP_CHUNK = 1000;
+
+    public enum Format { CSV, NDJSON }
+
+    private final UserRepository userRepository;
+    private final PooledPasswordEncoder passwordEncoder;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectMapper objectMapper;
+    private final int batchSize;
+    private final int maxRows;
+
+    public UserImportService(UserRepository userRepository,
+                             PooledPasswordEncoder passwordEncoder,
+                             JdbcTemplate jdbcTemplate,
+                             TransactionTemplate transactionTemplate,
+                             ObjectMapper objectMapper,
+                             @Value("${app.users.import.batch-size:500}") int batchSize,
+                             @Value("${app.users.import.max-rows:50000}") int maxRows) {
+        this.userRepository = userRepository;
+        this.passwordEncoder = passwordEncoder;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.objectMapper = objectMapper;
+        this.batchSize = batchSize;
+        this.maxRows = maxRows;
+    }
+
+    /**
+     * Imports users from CSV ({@code name,email,password[,role]}, optional header) or NDJSON
+     * (objects with the same fields). Role defaults to {@code STUDENT}.
+     *
+     * <p>The input is read line by line and written every {@code app.users.import.batch-size}
+     * accepted rows, so only one batch (plus the emails seen so far) is held in memory. Lines past
+     * {@code app.users.import.max-rows} are not read; the first of them is reported as rejected.
+     */
+    public ImportReport importUsers(Format format, InputStream in) throws IOException {
+        List<RowError> errors = new ArrayList<>();
+        List<ImportRow> batch = new ArrayList<>(batchSize);
+        Set<String> seen = new HashSet<>();
+        int received = 0;
+        int created = 0;
+
+        BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8));
+        String line;
+        int lineNo = 0;
+        while ((line = reader.readLine()) != null) {
+            lineNo++;
+            if (line.isBlank() || (lineNo == 1 && format == Format.CSV && line.toLowerCase(Locale.ROOT).startsWith("name,"))) {
+                continue;
+            }
+            if (received == maxRows) {
+                errors.add(new RowError(lineNo, null, "Import is limited to " + maxRows + " rows; this and later lines were skipped"));
+                break;
+            }
+            received++;
+            try {
+                ImportRow row = format == Format.CSV ? parseCsv(lineNo, line) : parseJson(lineNo, line);
+                if (!seen.add(row.email())) {
+                    errors.add(new RowError(lineNo, row.email(), "Duplicate email in import"));
+                } else {
+                    batch.add(row);
+                }
+            } catch (IllegalArgumentException e) {
+                errors.add(new RowError(lineNo, null, e.getMessage()));
+            }
+            if (batch.size() == batchSize) {
+                created += flush(batch, errors);
+                batch.clear();
+            }
+        }
+        created += flush(batch, errors);
+
+        errors.sort((a, b) -> Integer.compare(a.line(), b.line()));
+        return new ImportReport(received, created, errors);
+    }
+
+    private int flush(List<ImportRow> batch, List<RowError> errors) {
+        List<ImportRow> rows = withoutExisting(batch, errors);
+        if (rows.isEmpty()) {
+            return 0;
+        }
+        List<String> hashes = passwordEncoder.encodeAll(rows.stream().map(ImportRow::password).toList());
+        return insert(rows, hashes, errors);
+    }
+
+    private List<ImportRow> withoutExisting(List<ImportRow> rows, List<RowError> errors) {
+        Set<String> existing = new HashSet<>();
+        for (int from = 0; from < rows.size(); from += LOOKUP_CHUNK) {
+            List<String> emails = rows.subList(from, Math.min(rows.size(), from + LOOKUP_CHUNK)).stream()
+                .map(ImportRow::email)
+                .toList();
+            existing.addAll(userRepository.findExistingEmails(emails));
+        }
+        if (existing.isEmpty()) {
+            return rows;
+        }
+        List<ImportRow> remaining = new ArrayList<>(rows.size());
+        for (ImportRow row : rows) {
+            if (existing.contains(row.email())) {
+                errors.add(new RowError(row.line(), row.email(), "User with email " + row.email() + " already exists"));
+            } else {
+                remaining.add(row);
+            }
+        }
+        return remaining;
+    }
+
+    private int insert(List<ImportRow> batch, List<String> hashes, List<RowError> errors) {
+        try {
+            transactionTemplate.executeWithoutResult(status ->
+                jdbcTemplate.batchUpdate(INSERT_SQL, IntStream.range(0, batch.size()).boxed().toList(), batch.size(), (ps, i) -> bind(ps, batch.get(i), hashes.get(i))));
+            return batch.size();
+        } catch (DataIntegrityViolationException e) {
+            // Someone signed up with one of these emails meanwhile; retry row by row to isolate it
+            log.debug("Batch insert failed, retrying {} rows individually: {}", batch.size(), e.getMessage());
+            int created = 0;
+            for (int i = 0; i < batch.size(); i++) {
+                ImportRow row = batch.get(i);
+                String hash = hashes.get(i);
+                try {
+                    jdbcTemplate.update(INSERT_SQL, ps -> bind(ps, row, hash));
+                    created++;
+                } catch (DataIntegrityViolationException rowError) {
+                    errors.add(new RowError(row.line(), row.email(), "User with email " + row.email() + " already exists"));
+                }
+            }
+            return created;
+        }
+    }
+
+    private static void bind(PreparedStatement ps, ImportRow row, String hash) throws SQLException {
+        ps.setString(1, row.name());
+        ps.setString(2, row.email());
+        ps.setString(3, hash);
+        ps.setString(4, row.role().name());
+    }
+
+    private ImportRow parseJson(int lineNo, String line) {
+        try {
+            ImportRequest request = objectMapper.readValue(line, ImportRequest.class);
+            if (request == null) {
+                throw new IllegalArgumentException("Expected a JSON object");
+            }
+            return validate(lineNo, request.name(), request.email(), request.password(), request.role());
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Malformed JSON");
+        }
+    }
+
+    private ImportRow parseCsv(int lineNo, String line) {
+        List<String> fields = splitCsv(line);
+        if (fields.size() < 3 || fields.size() > 4) {
+            throw new IllegalArgumentException("Expected name,email,password[,role]");
+        }
+        return validate(lineNo, fields.get(0), fields.get(1), fields.get(2), fields.size() == 4 ? fields.get(3) : null);
+    }
+
+    private static ImportRow validate(int lineNo, String name, String email, String password, String role) {
+        if (name == null || name.isBlank()) {
+            throw new IllegalArgumentException("Name is required");
+        }
+        if (email == null || !email.contains("@")) {
+            throw new IllegalArgumentException("A valid email is required");
+        }
+        if (password == null || password.isBlank()) {
+            throw new IllegalArgumentException("Password is required");
+        }
+        Role parsedRole;
+        try {
+            parsedRole = role == null || role.isBlank() ? Role.STUDENT : Role.valueOf(role.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Unknown role " + role);
+        }
+        return new ImportRow(lineNo, name.trim(), email.trim().toLowerCase(), password, parsedRole);
+    }
+
+    /** Splits one CSV line, honouring double-quoted fields with {@code ""} escapes. */
+    private static List<String> splitCsv(String line) {
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    field.append('"');
+                    i++;
+                } else if (c == '"') {
+                    quoted = false;
+                } else {
+                    field.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else {
+                field.append(c);
+            }
+        }
+        if (quoted) {
+            throw new IllegalArgumentException("Unterminated quoted field");
+        }
+        fields.add(field.toString());
+        return fields;
+    }
+
+    private record ImportRequest(String name, String email, String password, String role) {}
+
+    private record ImportRow(int line, String name, String email, String password, Role role) {}
+
+    public record RowError(int line, String email, String message) {}
+
+    public record ImportReport(int received, int created, List<RowError> errors) {}
+}
@@ -3,19 +3,33 @@ package com.example.quiz.service;
 import com.example.quiz.domain.Role;
 import com.example.quiz.domain.User;
 import com.example.quiz.repo.UserRepository;
+import com.example.quiz.security.SessionUser;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 
+import java.time.Duration;
 import java.util.Optional;
 
 @Service
 public class UserService {
     private final UserRepository userRepository;
     private final PasswordEncoder passwordEncoder;
+    // Principals resolved for authenticated requests, so they need no users-table read
+    private final Cache<Long, SessionUser> sessionUsers;
 
-    public UserService(UserRepository userRepository, PasswordEncoder passwordEncoder) {
+    public UserService(UserRepository userRepository,
+                       PasswordEncoder passwordEncoder,
+                       @Value("${app.users.session-cache-size:10000}") long sessionCacheSize,
+                       @Value("${app.users.session-cache-ttl-seconds:300}") long sessionCacheTtlSeconds) {
         this.userRepository = userRepository;
         this.passwordEncoder = passwordEncoder;
+        this.sessionUsers = Caffeine.newBuilder()
+            .maximumSize(sessionCacheSize)
+            .expireAfterWrite(Duration.ofSeconds(sessionCacheTtlSeconds))
+            .build();
     }
 
     public User signup(String name, String email, String rawPassword, Role role) {
@@ -29,11 +43,25 @@ public class UserService {
         u.setEmail(email.toLowerCase());
         u.setPasswordHash(passwordEncoder.encode(rawPassword));
         u.setRole(role);
-        return userRepository.save(u);
+        User saved = userRepository.save(u);
+        // New users make their first authenticated requests right away
+        sessionUsers.put(saved.getId(), SessionUser.from(saved));
+        return saved;
     }
 
     public Optional<User> findByEmail(String email) { return userRepository.findByEmail(email.toLowerCase()); }
     public Optional<User> findById(Long id) { return userRepository.findById(id); }
-}
 
+    /** The user as a principal, read from the cache and loaded on a miss. */
+    public Optional<SessionUser> findSessionUser(Long id) {
+        return Optional.ofNullable(sessionUsers.get(id, key -> userRepository.findById(key).map(SessionUser::from).orElse(null)));
+    }
 
+    /**
+     * Drops the cached principal. Updates and deletes made through JPA call this after commit (see
+     * {@link SessionUserEvictionListener}); changes made with plain SQL must call it themselves.
+     */
+    public void evictSessionUser(Long id) {
+        sessionUsers.invalidate(id);
+    }
+}
@@ -1,71 +1,147 @@
 package com.example.quiz.web;
 
-import com.example.quiz.domain.Attempt;
-import com.example.quiz.domain.User;
-import com.example.quiz.domain.Role;
 import com.example.quiz.repo.AttemptRepository;
+import com.example.quiz.repo.AttemptView;
+import com.example.quiz.repo.StudentScoreSummary;
 import com.example.quiz.repo.UserRepository;
 import com.example.quiz.microservices.ResultService;
+import com.example.quiz.service.AttemptExportService;
+import com.example.quiz.service.AttemptStatistics;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.time.Instant;
 import java.util.*;
-import java.util.stream.Collectors;
 
 @RestController
 @RequestMapping("/api/analytics")
 @CrossOrigin(origins = "http://localhost:5173", allowCredentials = "true")
 public class AnalyticsController {
+    private static final int MAX_PAGE_SIZE = 500;
+
     private final AttemptRepository attemptRepository;
     private final UserRepository userRepository;
     private final ResultService resultService;
+    private final AttemptStatistics attemptStatistics;
+    private final AttemptExportService attemptExportService;
 
-    public AnalyticsController(AttemptRepository attemptRepository, UserRepository userRepository, ResultService resultService) {
+    public AnalyticsController(AttemptRepository attemptRepository, UserRepository userRepository, ResultService resultService,
+                               AttemptStatistics attemptStatistics, AttemptExportService attemptExportService) {
         this.attemptRepository = attemptRepository;
         this.userRepository = userRepository;
         this.resultService = resultService;
+        this.attemptStatistics = attemptStatistics;
+        this.attemptExportService = attemptExportService;
     }
 
     @GetMapping("/summary")
     public Map<String, Object> summary() {
-        var all = attemptRepository.findAll();
-        DoubleSummaryStatistics stats = all.stream().mapToDouble(Attempt::getScore).summaryStatistics();
+        AttemptStatistics.Snapshot stats = attemptStatistics.snapshot();
         return Map.of(
-            "attemptCount", all.size(),
-            "avgScore", stats.getAverage(),
-            "maxScore", stats.getMax(),
-            "minScore", stats.getMin()
+            "attemptCount", stats.attemptCount(),
+            "avgScore", stats.avgScore(),
+            "maxScore", stats.maxScore(),
+            "minScore", stats.minScore()
         );
     }
 
+    /**
+     * Per-student attempt count and average, grouped in SQL. Without {@code limit} every student is
+     * returned; with it, results are keyset-paged and the cursor for the next page is sent in the
+     * {@code X-Next-Cursor} header (absent on the last page).
+     *
+     * @param sort  {@code id} (default), {@code avg} or {@code attempts}; the latter two sort descending
+     * @param after opaque cursor from a previous page's {@code X-Next-Cursor}
+     */
     @GetMapping("/students")
-    public List<Map<String, Object>> students() {
-        List<User> students = userRepository.findAll().stream().filter(u -> u.getRole() == Role.STUDENT).toList();
-        var attempts = attemptRepository.findAll();
-        Map<Long, List<Attempt>> byStudent = attempts.stream().collect(Collectors.groupingBy(a -> a.getStudent().getId()));
-        return students.stream().map(s -> {
-            var list = byStudent.getOrDefault(s.getId(), List.of());
-            DoubleSummaryStatistics st = list.stream().mapToDouble(Attempt::getScore).summaryStatistics();
-            Map<String, Object> result = new HashMap<>();
-            result.put("studentId", s.getId());
-            result.put("name", s.getName());
-            result.put("attempts", list.size());
-            result.put("avgScore", list.isEmpty() ? 0 : st.getAverage());
-            return result;
-        }).toList();
+    public ResponseEntity<List<StudentScoreSummary>> students(@RequestParam(defaultValue = "id") String sort,
+                                                              @RequestParam(required = false) Integer limit,
+                                                              @RequestParam(required = false) String after) {
+        Pageable page = limit == null ? Pageable.unpaged() : PageRequest.ofSize(Math.max(1, Math.min(limit, MAX_PAGE_SIZE)));
+        long afterId = 0;
+        String afterValue = null;
+        if (after != null) {
+            int sep = after.lastIndexOf(':');
+            try {
+                afterId = Long.parseLong(after.substring(sep + 1));
+                afterValue = sep > 0 ? after.substring(0, sep) : null;
+            } catch (NumberFormatException e) {
+                return ResponseEntity.badRequest().build();
+            }
+        }
+
+        List<StudentScoreSummary> rows;
+        try {
+            rows = switch (sort) {
+                case "avg" -> userRepository.summarizeStudentsByAverage(
+                    afterValue == null ? Double.MAX_VALUE : Double.parseDouble(afterValue), afterId, page);
+                case "attempts" -> userRepository.summarizeStudentsByAttempts(
+                    afterValue == null ? Long.MAX_VALUE : Long.parseLong(afterValue), afterId, page);
+                case "id" -> userRepository.summarizeStudentsById(afterId, page);
+                default -> null;
+            };
+        } catch (NumberFormatException e) {
+            return ResponseEntity.badRequest().build();
+        }
+        if (rows == null) {
+            return ResponseEntity.badRequest().build();
+        }
+
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (page.isPaged() && rows.size() == page.getPageSize()) {
+            StudentScoreSummary last = rows.get(rows.size() - 1);
+            String value = switch (sort) {
+                case "avg" -> last.avgScore() + ":";
+                case "attempts" -> last.attempts() + ":";
+                default -> "";
+            };
+            response.header("X-Next-Cursor", value + last.studentId());
+        }
+        return response.body(rows);
     }
 
     @GetMapping("/attempts")
-    public List<Map<String, Object>> attempts() {
-        return attemptRepository.findAll().stream().map(a -> {
-            Map<String, Object> result = new HashMap<>();
-            result.put("id", a.getId());
-            result.put("studentId", a.getStudent().getId());
-            result.put("studentName", a.getStudent().getName());
-            result.put("quizId", a.getQuiz().getId());
-            result.put("quizTitle", a.getQuiz().getTitle());
-            result.put("score", a.getScore());
-            result.put("createdAt", a.getCreatedAt());
-            return result;
-        }).toList();
+    public List<AttemptView> attempts() {
+        return attemptRepository.findViews();
+    }
+
+    /**
+     * Export mode of {@code /attempts}: with {@code format=ndjson} or {@code format=csv} the rows are
+     * streamed directly from the database in constant memory. Optional filters:
+     * {@code since} (ISO-8601 instant, inclusive) and {@code quizId}.
+     */
+    @GetMapping(value = "/attempts", params = "format")
+    public ResponseEntity<StreamingResponseBody> exportAttempts(
+            @RequestParam String format,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant since,
+            @RequestParam(required = false) Long quizId) {
+        AttemptExportService.Format exportFormat;
+        MediaType contentType;
+        switch (format.toLowerCase()) {
+            case "ndjson" -> {
+                exportFormat = AttemptExportService.Format.NDJSON;
+                contentType = MediaType.parseMediaType("application/x-ndjson");
+            }
+            case "csv" -> {
+                exportFormat = AttemptExportService.Format.CSV;
+                contentType = MediaType.parseMediaType("text/csv;charset=UTF-8");
+            }
+            default -> {
+                return ResponseEntity.badRequest().build();
+            }
+        }
+
+        StreamingResponseBody body = out -> attemptExportService.export(exportFormat, since, quizId, out);
+        return ResponseEntity.ok()
+            .contentType(contentType)
+            .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"attempts." + format.toLowerCase() + "\"")
+            .body(body);
     }
 
     @GetMapping("/leaderboard")
@@ -1,40 +1,96 @@
 package com.example.quiz.web;
 
-import com.example.quiz.domain.Attempt;
 import com.example.quiz.domain.User;
+import com.example.quiz.repo.AttemptView;
+import com.example.quiz.security.SessionUser;
 import com.example.quiz.service.AttemptService;
-import com.example.quiz.service.UserService;
-import org.springframework.security.core.Authentication;
+import com.example.quiz.service.AttemptWriteBehindBuffer;
+import com.example.quiz.service.GradingPipeline;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
 
+import java.net.URI;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
 
 @RestController
 @RequestMapping("/api/attempt")
 @CrossOrigin(origins = "http://localhost:5173", allowCredentials = "true")
 public class AttemptController {
     private final AttemptService attemptService;
-    private final UserService userService;
+    private final GradingPipeline gradingPipeline;
 
-    public AttemptController(AttemptService attemptService, UserService userService) {
+    public AttemptController(AttemptService attemptService, GradingPipeline gradingPipeline) {
         this.attemptService = attemptService;
-        this.userService = userService;
+        this.gradingPipeline = gradingPipeline;
     }
 
-    private User getCurrentUser(Authentication authentication) { 
-        String email = authentication.getName();
-        return userService.findByEmail(email).orElseThrow();
+    @PostMapping
+    public ResponseEntity<?> submitAttempt(@RequestBody AttemptRequest request, @AuthenticationPrincipal SessionUser principal) {
+        User student = principal.toUser();
+        try {
+            return ResponseEntity.ok(attemptService.submitAttempt(request.quizId(), student, request.answers()));
+        } catch (AttemptWriteBehindBuffer.BufferFullException e) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header("Retry-After", "1")
+                .body(Map.of("message", e.getMessage()));
+        }
     }
 
-    @PostMapping
-    public Attempt submitAttempt(@RequestBody AttemptRequest request, Authentication authentication) {
-        User student = getCurrentUser(authentication);
-        return attemptService.submitAttempt(request.quizId(), student, request.answers());
+    @PostMapping("/async")
+    public ResponseEntity<?> submitAttemptAsync(@RequestBody AttemptRequest request, @AuthenticationPrincipal SessionUser principal) {
+        User student = principal.toUser();
+        try {
+            GradingPipeline.Receipt receipt = gradingPipeline.submit(request.quizId(), student, request.answers());
+            return ResponseEntity.accepted()
+                .location(URI.create("/api/attempt/receipts/" + receipt.id()))
+                .body(toBody(receipt));
+        } catch (RejectedExecutionException e) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header("Retry-After", "1")
+                .body(Map.of("message", "Grading queue is full, please retry shortly"));
+        } catch (RuntimeException e) {
+            return ResponseEntity.badRequest().body(Map.of("message", e.getMessage()));
+        }
+    }
+
+    /**
+     * Polls a submission receipt. With {@code waitMs} the request is parked (without holding a
+     * request thread) until grading finishes or the wait elapses, whichever comes first; on an
+     * instance other than the one grading it, the wait is cut to a short re-read.
+     */
+    @GetMapping("/receipts/{receiptId}")
+    public CompletableFuture<ResponseEntity<?>> getReceipt(@PathVariable String receiptId,
+                                                           @RequestParam(defaultValue = "0") long waitMs,
+                                                           @AuthenticationPrincipal SessionUser principal) {
+        return gradingPipeline.find(receiptId, principal.id())
+            .map(receipt -> gradingPipeline.await(receipt, Math.min(Math.max(waitMs, 0), 30_000))
+                .<ResponseEntity<?>>thenApply(r -> ResponseEntity.ok(toBody(r))))
+            .orElseGet(() -> CompletableFuture.completedFuture(ResponseEntity.notFound().build()));
+    }
+
+    private Map<String, Object> toBody(GradingPipeline.Receipt receipt) {
+        Map<String, Object> body = new HashMap<>();
+        body.put("receiptId", receipt.id());
+        body.put("quizId", receipt.quizId());
+        body.put("status", receipt.status());
+        body.put("submittedAt", receipt.submittedAt());
+        switch (receipt.status()) {
+            case COMPLETED -> body.put("attempt", receipt.attempt());
+            case FAILED -> body.put("error", receipt.error());
+            default -> { }
+        }
+        return body;
     }
 
     @GetMapping("/my")
-    public List<Attempt> myAttempts(Authentication authentication) {
-        return attemptService.attemptsFor(getCurrentUser(authentication));
+    public List<AttemptView> myAttempts(@AuthenticationPrincipal SessionUser principal) {
+        return attemptService.attemptsFor(principal.id());
     }
 
     public record AttemptRequest(Long quizId, List<Long> answers) {}
@@ -4,13 +4,17 @@ import com.example.quiz.domain.Role;
 import com.example.quiz.domain.User;
 import com.example.quiz.security.JwtUtil;
 import com.example.quiz.security.JwtTokenValidator;
+import com.example.quiz.security.PooledPasswordEncoder;
 import com.example.quiz.security.SessionUser;
 import com.example.quiz.security.TokenBlacklistService;
+import com.example.quiz.security.VerifiedToken;
 import com.example.quiz.service.UserService;
+import io.jsonwebtoken.JwtException;
 import jakarta.validation.constraints.Email;
 import jakarta.validation.constraints.NotBlank;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
-import org.springframework.security.core.Authentication;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.web.bind.annotation.*;
 
@@ -43,9 +47,11 @@ public class AuthController {
     public ResponseEntity<?> signup(@RequestBody SignupRequest req) {
         try {
             User u = userService.signup(req.name(), req.email(), req.password(), req.role());
-            String token = jwtUtil.generateToken(u.getEmail(), u.getRole().toString());
-            String refreshToken = jwtUtil.generateRefreshToken(u.getEmail(), u.getRole().toString());
+            String token = jwtUtil.generateToken(u.getId(), u.getEmail(), u.getRole().toString());
+            String refreshToken = jwtUtil.generateRefreshToken(u.getId(), u.getEmail(), u.getRole().toString());
             return ResponseEntity.ok(new AuthResponse(token, refreshToken, SessionUser.from(u)));
+        } catch (PooledPasswordEncoder.OverloadedException e) {
+            return tooManyRequests(e);
         } catch (Exception e) {
             return ResponseEntity.badRequest().body(Map.of("message", e.getMessage()));
         }
@@ -61,30 +67,40 @@ public class AuthController {
                 return ResponseEntity.status(401).body(Map.of("message", "Invalid credentials"));
             }
 
-            String token = jwtUtil.generateToken(u.getEmail(), u.getRole().toString());
-            String refreshToken = jwtUtil.generateRefreshToken(u.getEmail(), u.getRole().toString());
+            String token = jwtUtil.generateToken(u.getId(), u.getEmail(), u.getRole().toString());
+            String refreshToken = jwtUtil.generateRefreshToken(u.getId(), u.getEmail(), u.getRole().toString());
 
             return ResponseEntity.ok(new AuthResponse(token, refreshToken, SessionUser.from(u)));
+        } catch (PooledPasswordEncoder.OverloadedException e) {
+            return tooManyRequests(e);
         } catch (Exception e) {
             return ResponseEntity.status(401).body(Map.of("message", "Invalid credentials"));
         }
     }
 
+    private ResponseEntity<?> tooManyRequests(PooledPasswordEncoder.OverloadedException e) {
+        return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+            .header("Retry-After", "1")
+            .body(Map.of("message", e.getMessage()));
+    }
+
     @PostMapping("/logout")
     public ResponseEntity<?> logout(@RequestHeader(value = "Authorization", required = false) String authHeader) {
         if (authHeader != null && authHeader.startsWith("Bearer ")) {
             String token = authHeader.substring(7);
-            tokenBlacklistService.blacklistToken(token);
+            try {
+                tokenBlacklistService.blacklistToken(jwtUtil.parse(token));
+            } catch (JwtException e) {
+                // Expired or invalid tokens are already rejected, nothing to revoke
+            }
         }
         return ResponseEntity.ok(Map.of("status", "ok", "message", "Successfully logged out"));
     }
 
     @GetMapping("/me")
-    public ResponseEntity<?> me(Authentication authentication) {
-        if (authentication == null) return ResponseEntity.status(401).build();
-        String email = authentication.getName();
-        User u = userService.findByEmail(email).orElseThrow();
-        return ResponseEntity.ok(SessionUser.from(u));
+    public ResponseEntity<?> me(@AuthenticationPrincipal SessionUser principal) {
+        if (principal == null) return ResponseEntity.status(401).build();
+        return ResponseEntity.ok(principal);
     }
 
     @PostMapping("/refresh")
@@ -109,19 +125,20 @@ public class AuthController {
         }
 
         try {
-            String username = validationResult.getUsername();
-            String role = validationResult.getRole();
+            VerifiedToken verified = validationResult.getToken();
 
             // Blacklist the old refresh token to prevent reuse
-            tokenBlacklistService.blacklistToken(refreshToken);
+            tokenBlacklistService.blacklistToken(verified);
+
+            SessionUser user = verified.userId() != null
+                ? userService.findSessionUser(verified.userId()).orElseThrow()
+                : userService.findByEmail(verified.subject()).map(SessionUser::from).orElseThrow();
             
             // Generate new tokens
-            String newToken = jwtUtil.generateToken(username, role);
-            String newRefreshToken = jwtUtil.generateRefreshToken(username, role);
-
-            User u = userService.findByEmail(username).orElseThrow();
+            String newToken = jwtUtil.generateToken(user.id(), user.email(), user.role().toString());
+            String newRefreshToken = jwtUtil.generateRefreshToken(user.id(), user.email(), user.role().toString());
 
-            return ResponseEntity.ok(new AuthResponse(newToken, newRefreshToken, SessionUser.from(u)));
+            return ResponseEntity.ok(new AuthResponse(newToken, newRefreshToken, user));
         } catch (Exception e) {
             return ResponseEntity.status(500).body(Map.of(
                 "message", "Failed to refresh token: " + e.getMessage(),
@@ -0,0 +1,78 @@
+package com.example.quiz.web;
+
+import com.example.quiz.domain.Role;
+import com.example.quiz.microservices.AsyncQuestionBankService;
+import com.example.quiz.microservices.AsyncResultService;
+import com.example.quiz.security.SessionUser;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+@RestController
+@RequestMapping("/api/dashboard")
+@CrossOrigin(origins = "http://localhost:5173", allowCredentials = "true")
+@Slf4j
+public class DashboardController {
+    private final AsyncResultService resultService;
+    private final AsyncQuestionBankService questionBankService;
+    private final long timeoutMillis;
+
+    public DashboardController(AsyncResultService resultService, AsyncQuestionBankService questionBankService,
+                               @Value("${app.dashboard.timeout-ms:3000}") long timeoutMillis) {
+        this.resultService = resultService;
+        this.questionBankService = questionBankService;
+        this.timeoutMillis = timeoutMillis;
+    }
+
+    /**
+     * Everything a dashboard shows, fetched from result-service and question-bank-service in
+     * parallel: the leaderboard, the student's own results (students) or the question banks
+     * (teachers), and statistics for {@code quizId} when given. A part that fails or takes longer
+     * than {@code app.dashboard.timeout-ms} is left out and listed under {@code unavailable}.
+     */
+    @GetMapping
+    public CompletableFuture<Map<String, Object>> dashboard(@RequestParam(required = false) Long quizId,
+                                                            @AuthenticationPrincipal SessionUser principal) {
+        Map<String, CompletableFuture<?>> calls = new LinkedHashMap<>();
+        calls.put("leaderboard", resultService.getLeaderboard());
+        if (principal.role() == Role.TEACHER) {
+            calls.put("questionBanks", questionBankService.getAllQuestionBanks());
+        } else {
+            calls.put("results", resultService.getStudentResults(principal.id()));
+        }
+        if (quizId != null) {
+            calls.put("quizStatistics", resultService.getQuizStatistics(quizId));
+        }
+
+        List<CompletableFuture<Part>> parts = new ArrayList<>(calls.size());
+        calls.forEach((name, call) -> parts.add(call
+            .orTimeout(timeoutMillis, TimeUnit.MILLISECONDS)
+            .handle((value, error) -> new Part(name, value, error))));
+
+        return CompletableFuture.allOf(parts.toArray(CompletableFuture[]::new)).thenApply(done -> {
+            Map<String, Object> body = new LinkedHashMap<>();
+            List<String> unavailable = new ArrayList<>();
+            for (CompletableFuture<Part> future : parts) {
+                Part part = future.join();
+                if (part.error() == null) {
+                    body.put(part.name(), part.value());
+                } else {
+                    log.warn("Dashboard part {} unavailable: {}", part.name(), part.error().toString());
+                    unavailable.add(part.name());
+                }
+            }
+            body.put("unavailable", unavailable);
+            return body;
+        });
+    }
+
+    private record Part(String name, Object value, Throwable error) {}
+}
@@ -2,13 +2,21 @@ package com.example.quiz.web;
 
 import com.example.quiz.domain.Quiz;
 import com.example.quiz.domain.Question;
+import com.example.quiz.domain.Role;
+import com.example.quiz.security.SessionUser;
+import com.example.quiz.service.QuestionPayloadCache;
 import com.example.quiz.service.QuizService;
 import com.example.quiz.service.AIQuizGeneratorService;
 import com.example.quiz.microservices.QuestionBankService;
 import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.security.core.Authentication;
 import jakarta.validation.constraints.NotBlank;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.List;
@@ -51,9 +59,38 @@ public class QuizController {
     @GetMapping("/available")
     public List<Quiz> available() { return quizService.all(); }
     
+    /**
+     * Teachers get the full questions for editing. Students get the cached payload without answers,
+     * with a strong ETag; a matching {@code If-None-Match} returns {@code 304}.
+     */
     @GetMapping("/{id}/questions")
-    public List<Question> getQuestions(@PathVariable Long id) {
-        return quizService.getQuestions(id);
+    public ResponseEntity<?> getQuestions(@PathVariable Long id,
+                                          @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+                                          @AuthenticationPrincipal SessionUser principal) {
+        if (principal.role() == Role.TEACHER) {
+            return ResponseEntity.ok(quizService.getQuestions(id));
+        }
+        QuestionPayloadCache.Payload payload = quizService.getStudentQuestions(id);
+        CacheControl cacheControl = CacheControl.noCache().cachePrivate();
+        if (ifNoneMatch != null && etagMatches(ifNoneMatch, payload.etag())) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(payload.etag()).cacheControl(cacheControl).build();
+        }
+        return ResponseEntity.ok()
+            .eTag(payload.etag())
+            .cacheControl(cacheControl)
+            .contentType(MediaType.APPLICATION_JSON)
+            .body(payload.body());
+    }
+
+    // If-None-Match uses weak comparison, so a W/ prefix added by a proxy still matches
+    private static boolean etagMatches(String ifNoneMatch, String etag) {
+        for (String candidate : ifNoneMatch.split(",")) {
+            String tag = candidate.trim();
+            if (tag.equals("*") || tag.equals(etag) || tag.equals("W/" + etag)) {
+                return true;
+            }
+        }
+        return false;
     }
     
     @PutMapping("/{id}/questions")
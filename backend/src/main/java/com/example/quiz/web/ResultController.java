@@ -1,9 +1,8 @@
 package com.example.quiz.web;
 
-import com.example.quiz.domain.User;
 import com.example.quiz.microservices.ResultService;
-import com.example.quiz.service.UserService;
-import org.springframework.security.core.Authentication;
+import com.example.quiz.security.SessionUser;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.List;
@@ -14,18 +13,14 @@ import java.util.Map;
 @CrossOrigin(origins = "http://localhost:5173")
 public class ResultController {
     private final ResultService resultService;
-    private final UserService userService;
 
-    public ResultController(ResultService resultService, UserService userService) {
+    public ResultController(ResultService resultService) {
         this.resultService = resultService;
-        this.userService = userService;
     }
 
     @GetMapping("/my")
-    public Map<String, Object> getMyResults(Authentication authentication) {
-        String email = authentication.getName();
-        User user = userService.findByEmail(email).orElseThrow();
-        return resultService.getStudentResults(user);
+    public Map<String, Object> getMyResults(@AuthenticationPrincipal SessionUser principal) {
+        return resultService.getStudentResults(principal.toUser());
     }
 
     @GetMapping("/quiz/{quizId}")
@@ -33,6 +28,11 @@ public class ResultController {
         return resultService.getQuizStatistics(quizId);
     }
 
+    @GetMapping("/quiz/{quizId}/distribution")
+    public Map<String, Object> getQuizDistribution(@PathVariable Long quizId) {
+        return resultService.getQuizDistribution(quizId);
+    }
+
     @GetMapping("/leaderboard")
     public List<Map<String, Object>> getLeaderboard() {
         return resultService.getLeaderboard();
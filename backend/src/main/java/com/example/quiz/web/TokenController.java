@@ -2,6 +2,7 @@ package com.example.quiz.web;
 
 import com.example.quiz.security.JwtTokenValidator;
 import com.example.quiz.security.JwtUtil;
+import com.example.quiz.security.VerifiedToken;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
@@ -71,16 +72,13 @@ public class TokenController {
         String token = request.token();
         
         try {
-            String username = jwtUtil.extractUsername(token);
-            String role = jwtUtil.extractRole(token);
-            String tokenType = jwtUtil.extractTokenType(token);
-            boolean expired = jwtUtil.isTokenExpired(token);
+            VerifiedToken verified = jwtUtil.parse(token);
             
             return ResponseEntity.ok(Map.of(
-                "username", username,
-                "role", role,
-                "tokenType", tokenType,
-                "expired", expired
+                "username", verified.subject(),
+                "role", verified.role(),
+                "tokenType", verified.type(),
+                "expired", false
             ));
         } catch (Exception e) {
             return ResponseEntity.badRequest().body(Map.of(
@@ -0,0 +1,48 @@
+package com.example.quiz.web;
+
+import com.example.quiz.domain.Role;
+import com.example.quiz.security.SessionUser;
+import com.example.quiz.service.UserImportService;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.web.bind.annotation.*;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/users")
+@CrossOrigin(origins = "http://localhost:5173")
+public class UserController {
+    private final UserImportService userImportService;
+
+    public UserController(UserImportService userImportService) {
+        this.userImportService = userImportService;
+    }
+
+    /**
+     * Bulk account creation for teachers. The body is CSV ({@code name,email,password[,role]}) or,
+     * with {@code Content-Type: application/x-ndjson}, one JSON object per line. Valid rows are
+     * created even when others are rejected; the response lists each rejected row.
+     */
+    @PostMapping(value = "/import", consumes = {"text/csv", "application/x-ndjson"})
+    public ResponseEntity<?> importUsers(@RequestHeader("Content-Type") String contentType,
+                                         @AuthenticationPrincipal SessionUser principal,
+                                         InputStream body) {
+        if (principal.role() != Role.TEACHER) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).body(Map.of("message", "Only teachers can import users"));
+        }
+        UserImportService.Format format = contentType.startsWith("application/x-ndjson")
+            ? UserImportService.Format.NDJSON
+            : UserImportService.Format.CSV;
+        try {
+            return ResponseEntity.ok(userImportService.importUsers(format, body));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("message", e.getMessage()));
+        } catch (IOException e) {
+            return ResponseEntity.badRequest().body(Map.of("message", "Failed to read import: " + e.getMessage()));
+        }
+    }
+}
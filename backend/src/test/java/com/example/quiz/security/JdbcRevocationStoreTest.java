@@ -0,0 +1,107 @@
+package com.example.quiz.security;
+
+import com.example.quiz.domain.TokenRevocation;
+import com.example.quiz.repo.TokenRevocationRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Pageable;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class JdbcRevocationStoreTest {
+    private final List<TokenRevocation> committed = new ArrayList<>();
+    private TokenRevocationRepository repository;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        // A table whose contents are whatever has "committed" so far
+        repository = mock(TokenRevocationRepository.class);
+        when(repository.findByIdGreaterThanOrderByIdAsc(anyLong(), any(Pageable.class))).thenAnswer(invocation -> {
+            long afterId = invocation.getArgument(0);
+            int limit = invocation.<Pageable>getArgument(1).getPageSize();
+            return committed.stream()
+                .filter(row -> row.getId() > afterId)
+                .sorted(Comparator.comparing(TokenRevocation::getId))
+                .limit(limit)
+                .toList();
+        });
+        when(repository.findByIdIn(anyCollection())).thenAnswer(invocation -> {
+            Collection<Long> ids = invocation.getArgument(0);
+            return committed.stream().filter(row -> ids.contains(row.getId())).toList();
+        });
+    }
+
+    @Test
+    void idCommittedOutOfOrderIsPickedUpFromItsGap() {
+        JdbcRevocationStore store = new JdbcRevocationStore(repository, 100, 60_000, 1000);
+        commit(1, "a");
+        assertEquals(List.of("a"), tokenIds(store.pollNew()));
+
+        // Id 2 is still in flight when id 3 commits
+        commit(3, "c");
+        assertEquals(List.of("c"), tokenIds(store.pollNew()));
+
+        commit(2, "b");
+        assertEquals(List.of("b"), tokenIds(store.pollNew()));
+        assertTrue(store.pollNew().isEmpty());
+    }
+
+    @Test
+    void gapsOnTheInitialLoadAreNotTracked() {
+        // Ids 2-4 were purged before this instance started
+        commit(1, "a");
+        commit(5, "e");
+        JdbcRevocationStore store = new JdbcRevocationStore(repository, 100, 60_000, 1000);
+
+        assertEquals(List.of("a", "e"), tokenIds(store.pollNew()));
+        commit(3, "late");
+        assertTrue(store.pollNew().isEmpty());
+    }
+
+    @Test
+    void gapIsAbandonedAfterTheTimeout() throws InterruptedException {
+        JdbcRevocationStore store = new JdbcRevocationStore(repository, 100, 20, 1000);
+        commit(1, "a");
+        store.pollNew();
+        commit(3, "c");
+        store.pollNew();
+
+        Thread.sleep(50);
+        store.pollNew();
+        commit(2, "rolled back, then reused");
+        assertTrue(store.pollNew().isEmpty());
+    }
+
+    @Test
+    void readsPastTheMarkInBatches() {
+        JdbcRevocationStore store = new JdbcRevocationStore(repository, 2, 60_000, 1000);
+        for (int id = 1; id <= 5; id++) {
+            commit(id, "t" + id);
+        }
+
+        assertEquals(List.of("t1", "t2", "t3", "t4", "t5"), tokenIds(store.pollNew()));
+    }
+
+    private void commit(long id, String tokenId) {
+        TokenRevocation row = new TokenRevocation(tokenId, Instant.now().plusSeconds(60));
+        row.setId(id);
+        committed.add(row);
+    }
+
+    private static List<String> tokenIds(List<RevocationStore.Revocation> revocations) {
+        return revocations.stream().map(RevocationStore.Revocation::tokenId).toList();
+    }
+}
@@ -0,0 +1,151 @@
+package com.example.quiz.security;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataAccessResourceFailureException;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TokenBlacklistServiceTest {
+    private static final long TICK_MS = 10;
+
+    private SimpleMeterRegistry meterRegistry;
+    private QueueRevocationStore store;
+    private TokenBlacklistService blacklist;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        store = new QueueRevocationStore();
+        blacklist = new TokenBlacklistService(store, meterRegistry, 4, TICK_MS, 1000);
+    }
+
+    @Test
+    void revokedTokenIsBlacklistedAndPublished() {
+        VerifiedToken token = token("a", Instant.now().plusSeconds(60));
+
+        blacklist.blacklistToken(token);
+
+        assertTrue(blacklist.isBlacklisted(token));
+        assertEquals(List.of("a"), store.published);
+        assertEquals(1, lookups("hit"));
+    }
+
+    @Test
+    void bloomFilterAnswersMostUnknownTokens() {
+        Instant expiresAt = Instant.now().plusSeconds(60);
+        for (int i = 0; i < 1000; i++) {
+            blacklist.blacklistToken(token("revoked-" + i, expiresAt));
+        }
+
+        for (int i = 0; i < 10_000; i++) {
+            assertFalse(blacklist.isBlacklisted(token("other-" + i, expiresAt)));
+        }
+        // Sized for a 1% false-positive rate at 1000 entries; allow some slack
+        assertTrue(lookups("miss") < 300, "too many Bloom filter false positives: " + lookups("miss"));
+        assertEquals(10_000, lookups("filtered") + lookups("miss"));
+    }
+
+    @Test
+    void expiredOrAlreadyKnownTokensAreNotRecorded() {
+        blacklist.blacklistToken(token("old", Instant.now().minusSeconds(1)));
+        VerifiedToken token = token("a", Instant.now().plusSeconds(60));
+        blacklist.blacklistToken(token);
+        blacklist.blacklistToken(token);
+
+        assertFalse(blacklist.isBlacklisted(token("old", Instant.now().plusSeconds(60))));
+        assertEquals(List.of("a"), store.published);
+    }
+
+    @Test
+    void wheelEvictsExpiredTokensAndRebuildsFilter() throws InterruptedException {
+        VerifiedToken token = token("a", Instant.now().plusMillis(3 * TICK_MS));
+        blacklist.blacklistToken(token);
+
+        Thread.sleep(6 * TICK_MS);
+        blacklist.expire();
+
+        assertFalse(blacklist.isBlacklisted(token));
+        assertEquals(1, meterRegistry.counter("auth.token.blacklist.evictions").count());
+        // The rebuilt filter no longer knows the token, so the map is not consulted
+        assertEquals(1, lookups("filtered"));
+    }
+
+    @Test
+    void entryDueOnALaterTurnOfTheWheelSurvivesSweeps() throws InterruptedException {
+        // 4 slots of 10ms make a 40ms turn, so a 2s expiry shares its slot with many earlier ticks
+        VerifiedToken token = token("a", Instant.now().plusSeconds(2));
+        blacklist.blacklistToken(token);
+
+        for (int i = 0; i < 5; i++) {
+            Thread.sleep(TICK_MS);
+            blacklist.expire();
+        }
+
+        assertTrue(blacklist.isBlacklisted(token));
+        assertEquals(0, meterRegistry.counter("auth.token.blacklist.evictions").count());
+    }
+
+    @Test
+    void syncPullsRevocationsFromOtherInstances() {
+        VerifiedToken token = token("remote", Instant.now().plusSeconds(60));
+        store.incoming.add(new RevocationStore.Revocation("remote", token.expiresAt()));
+
+        blacklist.sync();
+
+        assertTrue(blacklist.isBlacklisted(token));
+        assertTrue(store.published.isEmpty());
+    }
+
+    @Test
+    void revocationTakesEffectLocallyWhenTheStoreFailsAndIsRetried() {
+        VerifiedToken token = token("a", Instant.now().plusSeconds(60));
+        store.failures = 1;
+
+        blacklist.blacklistToken(token);
+
+        assertTrue(blacklist.isBlacklisted(token));
+        assertTrue(store.published.isEmpty());
+
+        blacklist.sync();
+
+        assertEquals(List.of("a"), store.published);
+    }
+
+    private double lookups(String result) {
+        return meterRegistry.counter("auth.token.blacklist.lookups", "result", result).count();
+    }
+
+    private static VerifiedToken token(String id, Instant expiresAt) {
+        return new VerifiedToken(id, "student@example.com", 1L, "STUDENT", "access", Instant.now(), expiresAt);
+    }
+
+    private static final class QueueRevocationStore implements RevocationStore {
+        private final List<String> published = new ArrayList<>();
+        private final List<Revocation> incoming = new ArrayList<>();
+        private int failures;
+
+        @Override
+        public void revoke(String tokenId, Instant expiresAt) {
+            if (failures > 0) {
+                failures--;
+                throw new DataAccessResourceFailureException("database unavailable");
+            }
+            published.add(tokenId);
+        }
+
+        @Override
+        public List<Revocation> pollNew() {
+            List<Revocation> polled = List.copyOf(incoming);
+            incoming.clear();
+            return polled;
+        }
+    }
+}
@@ -0,0 +1,160 @@
+package com.example.quiz.service;
+
+import com.example.quiz.domain.Question;
+import com.example.quiz.domain.Quiz;
+import com.example.quiz.repo.QuestionRepository;
+import com.example.quiz.repo.QuizRepository;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class QuizServiceSaveQuestionsTest {
+    private static final Long QUIZ_ID = 7L;
+
+    private QuizRepository quizRepository;
+    private QuestionRepository questionRepository;
+    private AnswerKeyCache answerKeyCache;
+    private QuestionPayloadCache questionPayloadCache;
+    private JdbcTemplate jdbcTemplate;
+    private PreparedStatement insert;
+    private QuizService quizService;
+
+    private Question first;
+    private Question second;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        quizRepository = mock(QuizRepository.class);
+        questionRepository = mock(QuestionRepository.class);
+        answerKeyCache = mock(AnswerKeyCache.class);
+        questionPayloadCache = mock(QuestionPayloadCache.class);
+        jdbcTemplate = mock(JdbcTemplate.class);
+
+        Quiz quiz = new Quiz();
+        quiz.setId(QUIZ_ID);
+        when(quizRepository.findById(QUIZ_ID)).thenReturn(Optional.of(quiz));
+
+        first = question(1L, "Capital of France?", 0, "Paris", "Lyon");
+        second = question(2L, "2 + 2?", 1, "4", "5");
+        when(questionRepository.findWithOptionsByQuizId(QUIZ_ID)).thenReturn(List.of(first, second));
+
+        // Run batch inserts against a mocked connection so the inserted rows can be inspected
+        insert = mock(PreparedStatement.class);
+        when(insert.getGeneratedKeys()).thenReturn(mock(ResultSet.class));
+        Connection connection = mock(Connection.class);
+        when(connection.prepareStatement(anyString(), eq(Statement.RETURN_GENERATED_KEYS))).thenReturn(insert);
+        when(jdbcTemplate.execute(any(ConnectionCallback.class)))
+            .thenAnswer(invocation -> invocation.<ConnectionCallback<?>>getArgument(0).doInConnection(connection));
+
+        quizService = new QuizService(quizRepository, questionRepository, answerKeyCache, questionPayloadCache,
+            jdbcTemplate, new TransactionTemplate(mock(PlatformTransactionManager.class)), mock(EntityManager.class));
+    }
+
+    @Test
+    void unchangedQuestionsAreLeftAlone() {
+        List<Question.QuestionOption> firstOptions = first.getOptions();
+        List<Question.QuestionOption> secondOptions = second.getOptions();
+
+        quizService.saveQuestions(QUIZ_ID, List.of(
+            question(1L, "Capital of France?", null, "Paris", "Lyon"),
+            question(2L, "2 + 2?", null, "4", "5")));
+
+        assertSame(firstOptions, first.getOptions());
+        assertSame(secondOptions, second.getOptions());
+        assertEquals(0, first.getPosition());
+        assertEquals(1, second.getPosition());
+        verify(questionRepository, never()).deleteByIds(any());
+        verify(jdbcTemplate, never()).execute(any(ConnectionCallback.class));
+        verify(quizRepository).bumpVersion(QUIZ_ID);
+        verify(answerKeyCache).invalidate(QUIZ_ID);
+        verify(questionPayloadCache).rebuild(QUIZ_ID);
+    }
+
+    @Test
+    void editedQuestionsAreUpdatedInPlace() {
+        List<Question.QuestionOption> firstOptions = first.getOptions();
+
+        quizService.saveQuestions(QUIZ_ID, List.of(
+            question(1L, "Capital of Italy?", null, "Paris", "Lyon"),
+            question(2L, "2 + 2?", null, "4", "22")));
+
+        assertEquals("Capital of Italy?", first.getText());
+        assertSame(firstOptions, first.getOptions());
+        assertEquals("22", second.getOptions().get(1).getText());
+        verify(questionRepository, never()).deleteByIds(any());
+        verify(jdbcTemplate, never()).execute(any(ConnectionCallback.class));
+    }
+
+    @Test
+    void missingQuestionsAreDeleted() {
+        quizService.saveQuestions(QUIZ_ID, List.of(question(1L, "Capital of France?", null, "Paris", "Lyon")));
+
+        verify(questionRepository).deleteOptionsByQuestionIds(Set.of(2L));
+        verify(questionRepository).deleteByIds(Set.of(2L));
+        verify(jdbcTemplate, never()).execute(any(ConnectionCallback.class));
+    }
+
+    @Test
+    void reorderedQuestionsOnlyChangePosition() {
+        List<Question.QuestionOption> firstOptions = first.getOptions();
+
+        quizService.saveQuestions(QUIZ_ID, List.of(
+            question(2L, "2 + 2?", null, "4", "5"),
+            question(1L, "Capital of France?", null, "Paris", "Lyon")));
+
+        assertEquals(1, first.getPosition());
+        assertEquals(0, second.getPosition());
+        assertSame(firstOptions, first.getOptions());
+        verify(questionRepository, never()).deleteByIds(any());
+        verify(jdbcTemplate, never()).execute(any(ConnectionCallback.class));
+    }
+
+    @Test
+    void idFromAnotherQuizIsInsertedAsNew() throws Exception {
+        quizService.saveQuestions(QUIZ_ID, List.of(
+            question(1L, "Capital of France?", null, "Paris", "Lyon"),
+            question(2L, "2 + 2?", null, "4", "5"),
+            question(99L, "Borrowed question", null, "Yes", "No")));
+
+        verify(insert, times(1)).addBatch();
+        verify(insert).setString(1, "Borrowed question");
+        verify(insert).setLong(2, QUIZ_ID);
+        verify(insert).setInt(3, 2);
+        verify(questionRepository, never()).deleteByIds(any());
+    }
+
+    private static Question question(Long id, String text, Integer position, String correct, String wrong) {
+        Question question = new Question();
+        question.setId(id);
+        question.setText(text);
+        question.setPosition(position);
+        question.setOptions(new ArrayList<>(List.of(
+            new Question.QuestionOption(correct, true),
+            new Question.QuestionOption(wrong, false))));
+        return question;
+    }
+}
@@ -2,10 +2,12 @@ package com.example.questionbankservice.controller;
 
 import com.example.questionbankservice.domain.QuestionBank;
 import com.example.questionbankservice.repository.QuestionBankRepository;
+import com.example.questionbankservice.service.QuestionBankCatalog;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 @RestController
@@ -15,11 +17,20 @@ public class QuestionBankController {
     @Autowired
     private QuestionBankRepository questionBankRepository;
 
+    @Autowired
+    private QuestionBankCatalog questionBankCatalog;
+
     @GetMapping
     public List<QuestionBank> getAllQuestionBanks() {
         return questionBankRepository.findAll();
     }
 
+    /** Changes whenever any bank is created, updated or deleted; cheap enough to poll. */
+    @GetMapping("/version")
+    public Map<String, Object> getCatalogVersion() {
+        return Map.of("version", questionBankCatalog.currentVersion());
+    }
+
     @GetMapping("/{id}")
     public Optional<QuestionBank> getQuestionBankById(@PathVariable Long id) {
         return questionBankRepository.findById(id);
@@ -37,17 +48,17 @@ public class QuestionBankController {
 
     @PostMapping
     public QuestionBank createQuestionBank(@RequestBody QuestionBank questionBank) {
-        return questionBankRepository.save(questionBank);
+        return questionBankCatalog.save(questionBank);
     }
 
     @PutMapping("/{id}")
     public QuestionBank updateQuestionBank(@PathVariable Long id, @RequestBody QuestionBank questionBank) {
         questionBank.setId(id);
-        return questionBankRepository.save(questionBank);
+        return questionBankCatalog.save(questionBank);
     }
 
     @DeleteMapping("/{id}")
     public void deleteQuestionBank(@PathVariable Long id) {
-        questionBankRepository.deleteById(id);
+        questionBankCatalog.delete(id);
     }
 }
\ No newline at end of file
@@ -1,5 +1,6 @@
 package com.example.questionbankservice.domain;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.NotBlank;
 import lombok.Getter;
@@ -25,13 +26,19 @@ public class BankQuestion {
     @JoinColumn(name = "question_bank_id")
     private QuestionBank questionBank;
 
-    @ElementCollection
+    @Convert(converter = OptionsConverter.class)
+    @Column(name = "options_json", columnDefinition = "json")
+    private List<QuestionOption> options = new ArrayList<>();
+
+    // Options as stored before options_json existed; only read by BankQuestionOptionsMigration
+    @ElementCollection(fetch = FetchType.LAZY)
     @CollectionTable(name = "bank_question_options", joinColumns = @JoinColumn(name = "question_id"))
     @AttributeOverrides({
             @AttributeOverride(name = "text", column = @Column(name = "option_text")),
             @AttributeOverride(name = "correct", column = @Column(name = "is_correct"))
     })
-    private List<QuestionOption> options = new ArrayList<>();
+    @JsonIgnore
+    private List<QuestionOption> legacyOptions = new ArrayList<>();
 
     @Embeddable
     @Getter
@@ -49,4 +56,11 @@ public class BankQuestion {
             this.correct = correct;
         }
     }
+
+    @Converter
+    public static class OptionsConverter extends OptionsJsonConverter<QuestionOption> {
+        public OptionsConverter() {
+            super(QuestionOption.class);
+        }
+    }
 }
\ No newline at end of file
@@ -0,0 +1,29 @@
+package com.example.questionbankservice.domain;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * Single-row counter bumped in the same transaction as every change to question banks. Clients
+ * that cache banks compare it with the version they loaded to find out whether to refetch.
+ */
+@Entity
+@Table(name = "catalog_version")
+@Getter
+@Setter
+@NoArgsConstructor
+public class CatalogVersion {
+    public static final int ID = 1;
+
+    @Id
+    private Integer id;
+
+    private long version;
+
+    public CatalogVersion(Integer id, long version) {
+        this.id = id;
+        this.version = version;
+    }
+}
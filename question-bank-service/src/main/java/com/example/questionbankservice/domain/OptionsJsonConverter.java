@@ -0,0 +1,44 @@
+package com.example.questionbankservice.domain;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.AttributeConverter;
+
+import java.util.List;
+
+/**
+ * Stores a question's options as one JSON array column, so loading questions needs no join or
+ * per-question query and rewriting options is a single-column update. A null list is stored as
+ * {@code []}; a null column therefore means the row still has its options in the legacy table.
+ */
+abstract class OptionsJsonConverter<T> implements AttributeConverter<List<T>, String> {
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    private final JavaType listType;
+
+    OptionsJsonConverter(Class<T> optionType) {
+        this.listType = MAPPER.getTypeFactory().constructCollectionType(List.class, optionType);
+    }
+
+    @Override
+    public String convertToDatabaseColumn(List<T> options) {
+        try {
+            return MAPPER.writeValueAsString(options == null ? List.of() : options);
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Cannot serialise question options", e);
+        }
+    }
+
+    @Override
+    public List<T> convertToEntityAttribute(String json) {
+        if (json == null) {
+            return null;
+        }
+        try {
+            return MAPPER.readValue(json, listType);
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Cannot read question options", e);
+        }
+    }
+}
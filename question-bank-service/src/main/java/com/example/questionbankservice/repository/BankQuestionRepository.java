@@ -0,0 +1,24 @@
+package com.example.questionbankservice.repository;
+
+import com.example.questionbankservice.domain.BankQuestion;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface BankQuestionRepository extends JpaRepository<BankQuestion, Long> {
+    @Query("select q.id from BankQuestion q where q.options is null order by q.id")
+    List<Long> findIdsWithLegacyOptions(Pageable page);
+
+    // Locks the rows and re-checks options, so a question saved since its id was listed is left alone
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select distinct q from BankQuestion q left join fetch q.legacyOptions where q.id in :ids and q.options is null")
+    List<BankQuestion> findWithLegacyOptionsByIdIn(@Param("ids") Collection<Long> ids);
+}
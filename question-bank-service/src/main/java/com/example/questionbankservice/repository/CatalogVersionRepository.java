@@ -0,0 +1,14 @@
+package com.example.questionbankservice.repository;
+
+import com.example.questionbankservice.domain.CatalogVersion;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface CatalogVersionRepository extends JpaRepository<CatalogVersion, Integer> {
+    @Modifying
+    @Query("update CatalogVersion v set v.version = v.version + 1 where v.id = " + CatalogVersion.ID)
+    int increment();
+}
@@ -0,0 +1,58 @@
+package com.example.questionbankservice.service;
+
+import com.example.questionbankservice.domain.BankQuestion;
+import com.example.questionbankservice.repository.BankQuestionRepository;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Moves options from the legacy {@code bank_question_options} table into {@code options_json}, a
+ * batch of questions per transaction, and deletes the migrated rows. Runs at startup before
+ * requests are served; once every question is migrated it costs one empty query. Other instances
+ * may already be serving, so each batch is locked and only questions still without options are
+ * touched.
+ */
+@Component
+@Slf4j
+@ConditionalOnProperty(name = "questions.migrate-options", havingValue = "true", matchIfMissing = true)
+public class BankQuestionOptionsMigration {
+    private final BankQuestionRepository bankQuestionRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final int batchSize;
+
+    public BankQuestionOptionsMigration(BankQuestionRepository bankQuestionRepository,
+                                        TransactionTemplate transactionTemplate,
+                                        @Value("${questions.migrate-batch-size:500}") int batchSize) {
+        this.bankQuestionRepository = bankQuestionRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.batchSize = batchSize;
+    }
+
+    @PostConstruct
+    public void migrate() {
+        int migrated = 0;
+        List<Long> ids;
+        while (!(ids = bankQuestionRepository.findIdsWithLegacyOptions(PageRequest.ofSize(batchSize))).isEmpty()) {
+            List<Long> batch = ids;
+            migrated += transactionTemplate.execute(status -> {
+                List<BankQuestion> questions = bankQuestionRepository.findWithLegacyOptionsByIdIn(batch);
+                for (BankQuestion question : questions) {
+                    question.setOptions(new ArrayList<>(question.getLegacyOptions()));
+                    question.getLegacyOptions().clear();
+                }
+                return questions.size();
+            });
+        }
+        if (migrated > 0) {
+            log.info("Migrated options of {} bank questions to options_json", migrated);
+        }
+    }
+}
@@ -0,0 +1,51 @@
+package com.example.questionbankservice.service;
+
+import com.example.questionbankservice.domain.CatalogVersion;
+import com.example.questionbankservice.domain.QuestionBank;
+import com.example.questionbankservice.repository.CatalogVersionRepository;
+import com.example.questionbankservice.repository.QuestionBankRepository;
+import jakarta.annotation.PostConstruct;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+/** Changes to question banks, each committed together with a bump of the catalog version. */
+@Service
+public class QuestionBankCatalog {
+    private final QuestionBankRepository questionBankRepository;
+    private final CatalogVersionRepository catalogVersionRepository;
+
+    public QuestionBankCatalog(QuestionBankRepository questionBankRepository,
+                               CatalogVersionRepository catalogVersionRepository) {
+        this.questionBankRepository = questionBankRepository;
+        this.catalogVersionRepository = catalogVersionRepository;
+    }
+
+    @PostConstruct
+    public void init() {
+        if (!catalogVersionRepository.existsById(CatalogVersion.ID)) {
+            try {
+                catalogVersionRepository.save(new CatalogVersion(CatalogVersion.ID, 0));
+            } catch (DataIntegrityViolationException e) {
+                // Another instance created it first
+            }
+        }
+    }
+
+    @Transactional
+    public QuestionBank save(QuestionBank questionBank) {
+        QuestionBank saved = questionBankRepository.save(questionBank);
+        catalogVersionRepository.increment();
+        return saved;
+    }
+
+    @Transactional
+    public void delete(Long id) {
+        questionBankRepository.deleteById(id);
+        catalogVersionRepository.increment();
+    }
+
+    public long currentVersion() {
+        return catalogVersionRepository.findById(CatalogVersion.ID).map(CatalogVersion::getVersion).orElse(0L);
+    }
+}
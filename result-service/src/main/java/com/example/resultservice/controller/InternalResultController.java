@@ -0,0 +1,44 @@
+package com.example.resultservice.controller;
+
+import com.example.resultservice.domain.AttemptEvent;
+import com.example.resultservice.service.AttemptProjection;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Endpoints for other services only. They live outside {@code /api/results}, so the gateway does
+ * not route them, and every call must carry the shared service token in {@code X-Service-Token}.
+ */
+@RestController
+@RequestMapping("/internal/results")
+public class InternalResultController {
+    static final String TOKEN_HEADER = "X-Service-Token";
+
+    private final AttemptProjection attemptProjection;
+    private final byte[] serviceToken;
+
+    public InternalResultController(AttemptProjection attemptProjection,
+                                    @Value("${results.ingest.service-token:}") String serviceToken) {
+        this.attemptProjection = attemptProjection;
+        this.serviceToken = serviceToken.getBytes(StandardCharsets.UTF_8);
+    }
+
+    /** Receives attempt batches from the backend's outbox relay. Safe to call again with the same batch. */
+    @PostMapping("/events")
+    public ResponseEntity<Map<String, Object>> ingestEvents(@RequestHeader(value = TOKEN_HEADER, required = false) String token,
+                                                            @RequestBody List<AttemptEvent> events) {
+        // No token configured means nobody may call in
+        if (serviceToken.length == 0 || token == null
+                || !MessageDigest.isEqual(serviceToken, token.getBytes(StandardCharsets.UTF_8))) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body(Map.of("error", "Invalid service token"));
+        }
+        return ResponseEntity.ok(Map.of("received", events.size(), "recorded", attemptProjection.ingest(events)));
+    }
+}
@@ -1,74 +1,83 @@
 package com.example.resultservice.controller;
 
-import com.example.resultservice.domain.Attempt;
-import com.example.resultservice.domain.User;
-import com.example.resultservice.repository.AttemptRepository;
-import com.example.resultservice.repository.UserRepository;
+import com.example.resultservice.repository.AttemptScoreRepository;
+import com.example.resultservice.repository.ScoreStats;
+import com.example.resultservice.service.LeaderboardIndex;
+import com.example.resultservice.service.QuizRankIndex;
+import com.example.resultservice.service.ScoreHistogramIndex;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.*;
-import java.util.stream.Collectors;
 
 @RestController
 @RequestMapping("/api/results")
 public class ResultController {
 
     @Autowired
-    private AttemptRepository attemptRepository;
+    private AttemptScoreRepository attemptScoreRepository;
 
     @Autowired
-    private UserRepository userRepository;
+    private LeaderboardIndex leaderboardIndex;
 
-    @GetMapping("/student/{studentId}")
-    public Map<String, Object> getStudentResults(@PathVariable Long studentId) {
-        Optional<User> userOpt = userRepository.findById(studentId);
-        if (userOpt.isEmpty()) {
-            return Map.of("error", "Student not found");
-        }
+    @Autowired
+    private QuizRankIndex quizRankIndex;
 
-        User user = userOpt.get();
-        List<Attempt> attempts = attemptRepository.findByStudent(user);
-        DoubleSummaryStatistics stats = attempts.stream().mapToDouble(Attempt::getScore).summaryStatistics();
+    @Autowired
+    private ScoreHistogramIndex scoreHistogramIndex;
 
-        Map<String, Object> result = new HashMap<>();
-        result.put("studentId", user.getId());
-        result.put("attempts", attempts.size());
-        result.put("avgScore", attempts.isEmpty() ? 0 : stats.getAverage());
-        result.put("bestScore", attempts.isEmpty() ? 0 : stats.getMax());
+    // Served from the read model alone; a student without attempts (or unknown here) gets zeros
+    @GetMapping("/student/{studentId}")
+    public Map<String, Object> getStudentResults(@PathVariable Long studentId) {
+        Map<String, Object> result = toBody(attemptScoreRepository.statsForStudent(studentId));
+        result.put("studentId", studentId);
         return result;
     }
 
     @GetMapping("/quiz/{quizId}")
     public Map<String, Object> getQuizStatistics(@PathVariable Long quizId) {
-        List<Attempt> attempts = attemptRepository.findByQuizId(quizId);
-        DoubleSummaryStatistics stats = attempts.stream().mapToDouble(Attempt::getScore).summaryStatistics();
+        return scoreHistogramIndex.summary(quizId);
+    }
 
+    @GetMapping(value = "/quiz/{quizId}/distribution", produces = MediaType.APPLICATION_JSON_VALUE)
+    public Map<String, Object> getQuizDistribution(@PathVariable Long quizId) {
+        return scoreHistogramIndex.distribution(quizId);
+    }
+
+    /** Compact form of the distribution: 101 big-endian 32-bit counts, one per score. */
+    @GetMapping(value = "/quiz/{quizId}/distribution", produces = MediaType.APPLICATION_OCTET_STREAM_VALUE)
+    public byte[] getEncodedQuizDistribution(@PathVariable Long quizId) {
+        return scoreHistogramIndex.encodedDistribution(quizId);
+    }
+
+    private Map<String, Object> toBody(ScoreStats stats) {
+        boolean empty = stats.count() == 0;
         Map<String, Object> result = new HashMap<>();
-        result.put("quizId", quizId);
-        result.put("attempts", attempts.size());
-        result.put("avgScore", attempts.isEmpty() ? 0 : stats.getAverage());
-        result.put("bestScore", attempts.isEmpty() ? 0 : stats.getMax());
+        result.put("attempts", stats.count());
+        result.put("avgScore", empty ? 0 : stats.avgScore());
+        result.put("bestScore", empty ? 0 : stats.bestScore());
         return result;
     }
 
+    @GetMapping("/quiz/{quizId}/rank/{studentId}")
+    public ResponseEntity<Map<String, Object>> getQuizRank(@PathVariable Long quizId, @PathVariable Long studentId) {
+        return quizRankIndex.rank(quizId, studentId)
+                .map(ResponseEntity::ok)
+                .orElseGet(() -> ResponseEntity.status(HttpStatus.NOT_FOUND)
+                        .body(Map.of("error", "No attempt by this student on this quiz")));
+    }
+
+    @GetMapping("/quiz/{quizId}/leaderboard")
+    public List<Map<String, Object>> getQuizLeaderboard(@PathVariable Long quizId,
+                                                        @RequestParam(defaultValue = "10") int limit) {
+        return quizRankIndex.leaderboard(quizId, Math.max(1, Math.min(limit, 100)));
+    }
+
     @GetMapping("/leaderboard")
     public List<Map<String, Object>> getLeaderboard() {
-        List<User> users = userRepository.findAll();
-        Map<Long, List<Attempt>> attemptsByUser = attemptRepository.findAll().stream()
-                .collect(Collectors.groupingBy(a -> a.getStudent().getId()));
-
-        return users.stream().map(u -> {
-            List<Attempt> attempts = attemptsByUser.getOrDefault(u.getId(), List.of());
-            DoubleSummaryStatistics stats = attempts.stream().mapToDouble(Attempt::getScore).summaryStatistics();
-            Map<String, Object> entry = new HashMap<>();
-            entry.put("studentId", u.getId());
-            entry.put("name", u.getName());
-            entry.put("attempts", attempts.size());
-            entry.put("avgScore", attempts.isEmpty() ? 0 : stats.getAverage());
-            return entry;
-        }).sorted((a, b) -> Double.compare((double) b.get("avgScore"), (double) a.get("avgScore")))
-                .limit(10)
-                .toList();
+        return leaderboardIndex.top(10);
     }
 }
\ No newline at end of file
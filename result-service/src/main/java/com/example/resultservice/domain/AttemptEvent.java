@@ -0,0 +1,11 @@
+package com.example.resultservice.domain;
+
+import java.time.Instant;
+
+/**
+ * A single recorded attempt, as pushed by the backend and consumed by the in-memory result indexes.
+ * {@code deleted} marks the attempt as deleted in the backend; it carries the attempt's details so
+ * it can be taken back out of the indexes.
+ */
+public record AttemptEvent(Long attemptId, Long studentId, String studentName, Long quizId, int score, Instant createdAt,
+                           boolean deleted) {}
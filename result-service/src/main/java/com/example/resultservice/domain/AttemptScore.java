@@ -0,0 +1,41 @@
+package com.example.resultservice.domain;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.Instant;
+
+/**
+ * Result-service's own compact read model of an attempt, keyed by the backend's attempt id. Lets
+ * statistics and index rebuilds avoid the backend's attempt and users tables.
+ */
+@Entity
+@Table(name = "result_attempt_score", indexes = {
+        @Index(name = "idx_result_attempt_score_student", columnList = "student_id"),
+        @Index(name = "idx_result_attempt_score_quiz", columnList = "quiz_id")
+})
+@Getter
+@Setter
+@NoArgsConstructor
+public class AttemptScore {
+    @Id
+    private Long id;
+
+    @Column(name = "student_id", nullable = false)
+    private Long studentId;
+
+    private String studentName;
+
+    @Column(name = "quiz_id", nullable = false)
+    private Long quizId;
+
+    private int score;
+
+    private Instant createdAt;
+
+    // Deleted in the backend; kept as a tombstone so a redelivered event cannot bring it back
+    @Column(nullable = false, columnDefinition = "boolean not null default false")
+    private boolean deleted;
+}
@@ -0,0 +1,31 @@
+package com.example.resultservice.repository;
+
+import com.example.resultservice.domain.AttemptEvent;
+import com.example.resultservice.domain.AttemptScore;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+
+@Repository
+public interface AttemptScoreRepository extends JpaRepository<AttemptScore, Long> {
+    @Query("select new com.example.resultservice.domain.AttemptEvent(s.id, s.studentId, s.studentName, s.quizId, s.score, s.createdAt, s.deleted) " +
+            "from AttemptScore s where s.id > :afterId order by s.id")
+    List<AttemptEvent> findEventsAfter(@Param("afterId") long afterId, Pageable page);
+
+    @Query("select s.id from AttemptScore s where s.id in :ids")
+    Set<Long> findExistingIds(@Param("ids") Collection<Long> ids);
+
+    @Query("select new com.example.resultservice.repository.ScoreStats(count(s), avg(s.score), max(s.score)) " +
+            "from AttemptScore s where s.studentId = :studentId and s.deleted = false")
+    ScoreStats statsForStudent(@Param("studentId") Long studentId);
+
+    @Query("select new com.example.resultservice.repository.ModelCounts(count(s), coalesce(sum(case when s.deleted = true then 1 else 0 end), 0L)) " +
+            "from AttemptScore s")
+    ModelCounts counts();
+}
@@ -0,0 +1,4 @@
+package com.example.resultservice.repository;
+
+/** Size of the read model: every row, and how many of them are tombstones of deleted attempts. */
+public record ModelCounts(Long rows, Long deleted) {}
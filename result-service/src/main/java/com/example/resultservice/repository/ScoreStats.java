@@ -0,0 +1,4 @@
+package com.example.resultservice.repository;
+
+/** Count, average and best score over a set of attempts. */
+public record ScoreStats(Long count, Double avgScore, Integer bestScore) {}
@@ -0,0 +1,11 @@
+package com.example.resultservice.service;
+
+import com.example.resultservice.domain.AttemptEvent;
+
+/** An in-memory structure kept current by {@link AttemptProjection}, one attempt at a time. */
+public interface AttemptIndex {
+    void record(AttemptEvent event);
+
+    /** Takes back a previously recorded attempt that has since been deleted. */
+    void remove(AttemptEvent event);
+}
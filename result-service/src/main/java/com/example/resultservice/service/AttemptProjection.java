@@ -0,0 +1,179 @@
+package com.example.resultservice.service;
+
+import com.example.resultservice.domain.AttemptEvent;
+import com.example.resultservice.repository.AttemptScoreRepository;
+import com.example.resultservice.repository.ModelCounts;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.util.BitSet;
+import java.util.Calendar;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TimeZone;
+
+/**
+ * Maintains the {@code result_attempt_score} read model and this instance's in-memory indexes built
+ * on it. The backend's outbox relay sends every batch to every instance; the first one to receive
+ * it writes the rows, and each instance applies it to its own indexes. Delivery is at-least-once,
+ * so which attempts this instance has applied (and which were deleted) is tracked by attempt id.
+ *
+ * <p>Deleted attempts stay in the table as tombstones, so a late redelivery of the original event
+ * cannot bring them back. The table is authoritative: an instance that missed a batch (because it
+ * was down or still starting) notices that its counts disagree with the table and replays it.
+ *
+ * <p>On startup an empty read model is seeded once from the backend's attempt table.
+ */
+@Service
+@Slf4j
+public class AttemptProjection {
+    private static final String INSERT_SQL =
+            "insert ignore into result_attempt_score (id, student_id, student_name, quiz_id, score, created_at, deleted) values (?, ?, ?, ?, ?, ?, ?)";
+    private static final String DELETE_SQL = "update result_attempt_score set deleted = true where id = ?";
+    private static final String BACKFILL_SQL =
+            "insert ignore into result_attempt_score (id, student_id, student_name, quiz_id, score, created_at) " +
+            "select a.id, a.student_id, u.name, a.quiz_id, a.score, a.created_at " +
+            "from attempt a join users u on u.id = a.student_id";
+
+    private final AttemptScoreRepository attemptScoreRepository;
+    private final List<AttemptIndex> indexes;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final int batchSize;
+    // Attempt ids currently counted in the indexes, and ids known to be deleted
+    private final BitSet applied = new BitSet();
+    private final BitSet deleted = new BitSet();
+    private boolean drifted;
+
+    public AttemptProjection(AttemptScoreRepository attemptScoreRepository,
+                             List<AttemptIndex> indexes,
+                             JdbcTemplate jdbcTemplate,
+                             TransactionTemplate transactionTemplate,
+                             @Value("${results.replay.batch-size:5000}") int batchSize) {
+        this.attemptScoreRepository = attemptScoreRepository;
+        this.indexes = indexes;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.batchSize = batchSize;
+    }
+
+    @PostConstruct
+    public synchronized void rebuild() {
+        // Instances starting together may both see an empty table; insert ignore makes the seed idempotent
+        if (attemptScoreRepository.count() == 0) {
+            int copied = jdbcTemplate.update(BACKFILL_SQL);
+            log.info("Seeded result read model with {} existing attempts", copied);
+        }
+        log.info("Result indexes rebuilt from {} attempts", replay());
+    }
+
+    /**
+     * Replays the table into the indexes if this instance's counts have disagreed with it on two
+     * checks in a row; a single mismatch is usually a batch another instance has just written and
+     * that is still on its way here.
+     */
+    @Scheduled(fixedDelayString = "${results.reconcile-ms:30000}")
+    public synchronized void reconcile() {
+        ModelCounts counts = attemptScoreRepository.counts();
+        boolean mismatch = counts.rows() - counts.deleted() != applied.cardinality() || counts.deleted() != deleted.cardinality();
+        if (mismatch && drifted) {
+            log.info("Result indexes disagree with the read model, replayed {} attempts", replay());
+            mismatch = false;
+        }
+        drifted = mismatch;
+    }
+
+    /** Walks the whole table, applying whatever this instance has not seen yet. */
+    private int replay() {
+        long afterId = 0;
+        int replayed = 0;
+        List<AttemptEvent> events;
+        do {
+            events = attemptScoreRepository.findEventsAfter(afterId, PageRequest.ofSize(batchSize));
+            events.forEach(this::apply);
+            if (!events.isEmpty()) {
+                afterId = events.get(events.size() - 1).attemptId();
+            }
+            replayed += events.size();
+        } while (events.size() == batchSize);
+        return replayed;
+    }
+
+    /** Records a batch of attempts and deletions; returns how many changed this instance's indexes. */
+    public synchronized int ingest(List<AttemptEvent> events) {
+        List<AttemptEvent> valid = events.stream().filter(e -> e.attemptId() != null).toList();
+        if (valid.isEmpty()) {
+            return 0;
+        }
+        Set<Long> existing = attemptScoreRepository.findExistingIds(valid.stream().map(AttemptEvent::attemptId).toList());
+        // One row per new attempt; if the same batch also deletes it, the row is a tombstone from the start
+        Map<Long, AttemptEvent> newRows = new LinkedHashMap<>();
+        for (AttemptEvent e : valid) {
+            if (!existing.contains(e.attemptId())) {
+                newRows.merge(e.attemptId(), e, (first, later) -> later.deleted() ? later : first);
+            }
+        }
+        List<AttemptEvent> inserts = List.copyOf(newRows.values());
+        // Another instance may be writing the same batch: duplicate inserts are ignored and deletes are
+        // applied to every row regardless, so the tombstone survives whichever insert won
+        List<AttemptEvent> deletes = valid.stream().filter(AttemptEvent::deleted).toList();
+
+        Calendar utc = Calendar.getInstance(TimeZone.getTimeZone("UTC"));
+        transactionTemplate.executeWithoutResult(status -> {
+            if (!inserts.isEmpty()) {
+                jdbcTemplate.batchUpdate(INSERT_SQL, inserts, inserts.size(), (ps, e) -> {
+                    ps.setLong(1, e.attemptId());
+                    ps.setLong(2, e.studentId());
+                    ps.setString(3, e.studentName());
+                    ps.setLong(4, e.quizId());
+                    ps.setInt(5, e.score());
+                    ps.setTimestamp(6, e.createdAt() != null ? Timestamp.from(e.createdAt()) : null, utc);
+                    ps.setBoolean(7, e.deleted());
+                });
+            }
+            if (!deletes.isEmpty()) {
+                jdbcTemplate.batchUpdate(DELETE_SQL, deletes, deletes.size(), (ps, e) -> ps.setLong(1, e.attemptId()));
+            }
+        });
+        // Indexes only change once the rows are durable, so a replay always reproduces them
+        int changed = 0;
+        for (AttemptEvent event : valid) {
+            if (apply(event)) {
+                changed++;
+            }
+        }
+        return changed;
+    }
+
+    /** Brings the indexes in line with one event; returns whether anything changed. */
+    private boolean apply(AttemptEvent event) {
+        int id = Math.toIntExact(event.attemptId());
+        if (deleted.get(id)) {
+            return false;
+        }
+        if (event.deleted()) {
+            deleted.set(id);
+            if (!applied.get(id)) {
+                return false;
+            }
+            applied.clear(id);
+            indexes.forEach(index -> index.remove(event));
+            return true;
+        }
+        if (applied.get(id)) {
+            return false;
+        }
+        applied.set(id);
+        indexes.forEach(index -> index.record(event));
+        return true;
+    }
+}
@@ -0,0 +1,99 @@
+package com.example.resultservice.service;
+
+import com.example.resultservice.domain.AttemptEvent;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+
+/**
+ * Overall leaderboard maintained incrementally: a running sum and count per student plus a
+ * skip-list ordered by average score (descending, ties by student id), so top-K reads are O(K).
+ */
+@Component
+public class LeaderboardIndex implements AttemptIndex {
+    private static final Comparator<Rank> ORDER = Comparator
+            .comparingDouble(Rank::avgScore).reversed()
+            .thenComparingLong(Rank::studentId);
+
+    private final ConcurrentHashMap<Long, Tally> tallies = new ConcurrentHashMap<>();
+    private final ConcurrentSkipListSet<Rank> ranking = new ConcurrentSkipListSet<>(ORDER);
+
+    @Override
+    public void record(AttemptEvent event) {
+        Tally tally = tallies.computeIfAbsent(event.studentId(), Tally::new);
+        synchronized (tally) {
+            if (tally.rank != null) {
+                ranking.remove(tally.rank);
+            }
+            tally.name = event.studentName();
+            tally.count++;
+            tally.sum += event.score();
+            tally.rank = new Rank((double) tally.sum / tally.count, tally.studentId);
+            ranking.add(tally.rank);
+        }
+    }
+
+    @Override
+    public void remove(AttemptEvent event) {
+        Tally tally = tallies.get(event.studentId());
+        if (tally == null) {
+            return;
+        }
+        synchronized (tally) {
+            if (tally.rank != null) {
+                ranking.remove(tally.rank);
+            }
+            tally.count--;
+            tally.sum -= event.score();
+            tally.rank = tally.count > 0 ? new Rank((double) tally.sum / tally.count, tally.studentId) : null;
+            if (tally.rank != null) {
+                ranking.add(tally.rank);
+            } else {
+                tallies.remove(event.studentId(), tally);
+            }
+        }
+    }
+
+    public List<Map<String, Object>> top(int k) {
+        List<Map<String, Object>> result = new ArrayList<>(k);
+        Iterator<Rank> it = ranking.iterator();
+        while (result.size() < k && it.hasNext()) {
+            Rank rank = it.next();
+            Tally tally = tallies.get(rank.studentId());
+            if (tally == null) {
+                // Last attempt deleted while iterating
+                continue;
+            }
+            Map<String, Object> entry = new HashMap<>();
+            entry.put("studentId", rank.studentId());
+            entry.put("avgScore", rank.avgScore());
+            synchronized (tally) {
+                entry.put("name", tally.name);
+                entry.put("attempts", tally.count);
+            }
+            result.add(entry);
+        }
+        return result;
+    }
+
+    private record Rank(double avgScore, long studentId) {}
+
+    private static final class Tally {
+        private final long studentId;
+        private String name;
+        private long count;
+        private long sum;
+        private Rank rank;
+
+        private Tally(Long studentId) {
+            this.studentId = studentId;
+        }
+    }
+}
@@ -0,0 +1,164 @@
+package com.example.resultservice.service;
+
+import com.example.resultservice.domain.AttemptEvent;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Per-quiz ranking of each student's best score. Scores are bounded (0-100), so every quiz keeps a
+ * Fenwick tree of score frequencies for O(log 101) rank and percentile lookups, plus the students
+ * in each score bucket for top-N reads without sorting. Every score a student has on a quiz is
+ * kept (as a count per score), so deleting their best attempt falls back to the next best.
+ */
+@Component
+public class QuizRankIndex implements AttemptIndex {
+    static final int MAX_SCORE = 100;
+
+    private final ConcurrentHashMap<Long, QuizScores> quizzes = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<Long, String> studentNames = new ConcurrentHashMap<>();
+
+    @Override
+    public void record(AttemptEvent event) {
+        int score = Math.max(0, Math.min(MAX_SCORE, event.score()));
+        studentNames.put(event.studentId(), event.studentName());
+        QuizScores scores = quizzes.computeIfAbsent(event.quizId(), id -> new QuizScores());
+        synchronized (scores) {
+            scores.attempts.computeIfAbsent(event.studentId(), id -> new TreeMap<>()).merge(score, 1, Integer::sum);
+            scores.updateBest(event.studentId());
+        }
+    }
+
+    @Override
+    public void remove(AttemptEvent event) {
+        int score = Math.max(0, Math.min(MAX_SCORE, event.score()));
+        QuizScores scores = quizzes.get(event.quizId());
+        if (scores == null) {
+            return;
+        }
+        synchronized (scores) {
+            TreeMap<Integer, Integer> attempts = scores.attempts.get(event.studentId());
+            if (attempts == null) {
+                return;
+            }
+            attempts.computeIfPresent(score, (s, n) -> n > 1 ? n - 1 : null);
+            if (attempts.isEmpty()) {
+                scores.attempts.remove(event.studentId());
+            }
+            scores.updateBest(event.studentId());
+        }
+    }
+
+    /** Rank of the student's best score on the quiz, or empty if they have not attempted it. */
+    public Optional<Map<String, Object>> rank(Long quizId, Long studentId) {
+        QuizScores scores = quizzes.get(quizId);
+        if (scores == null) {
+            return Optional.empty();
+        }
+        synchronized (scores) {
+            Integer best = scores.best.get(studentId);
+            if (best == null) {
+                return Optional.empty();
+            }
+            int participants = scores.best.size();
+            int atOrBelow = scores.prefix(best);
+            int below = best > 0 ? scores.prefix(best - 1) : 0;
+
+            Map<String, Object> result = new HashMap<>();
+            result.put("quizId", quizId);
+            result.put("studentId", studentId);
+            result.put("bestScore", best);
+            result.put("rank", participants - atOrBelow + 1);
+            result.put("participants", participants);
+            // Percentile rank: share of participants below, counting ties as half
+            result.put("percentile", (below + 0.5 * (atOrBelow - below)) * 100.0 / participants);
+            return Optional.of(result);
+        }
+    }
+
+    /** The top {@code limit} students by best score on the quiz; tied students share a rank. */
+    public List<Map<String, Object>> leaderboard(Long quizId, int limit) {
+        List<Map<String, Object>> result = new ArrayList<>();
+        QuizScores scores = quizzes.get(quizId);
+        if (scores == null) {
+            return result;
+        }
+        synchronized (scores) {
+            int ahead = 0;
+            for (int score = MAX_SCORE; score >= 0 && result.size() < limit; score--) {
+                TreeSet<Long> bucket = scores.buckets[score];
+                for (Long studentId : bucket) {
+                    if (result.size() >= limit) {
+                        break;
+                    }
+                    Map<String, Object> entry = new HashMap<>();
+                    entry.put("studentId", studentId);
+                    entry.put("name", studentNames.get(studentId));
+                    entry.put("bestScore", score);
+                    entry.put("rank", ahead + 1);
+                    result.add(entry);
+                }
+                ahead += bucket.size();
+            }
+        }
+        return result;
+    }
+
+    private static final class QuizScores {
+        private final int[] tree = new int[MAX_SCORE + 2];
+        private final Map<Long, Integer> best = new HashMap<>();
+        // Per student: score -> number of attempts with that score
+        private final Map<Long, TreeMap<Integer, Integer>> attempts = new HashMap<>();
+        @SuppressWarnings("unchecked")
+        private final TreeSet<Long>[] buckets = new TreeSet[MAX_SCORE + 1];
+
+        private QuizScores() {
+            for (int i = 0; i <= MAX_SCORE; i++) {
+                buckets[i] = new TreeSet<>();
+            }
+        }
+
+        /** Moves the student to the bucket of their current highest score, or out if none is left. */
+        private void updateBest(Long studentId) {
+            TreeMap<Integer, Integer> scores = attempts.get(studentId);
+            Integer next = scores == null || scores.isEmpty() ? null : scores.lastKey();
+            Integer previous = best.get(studentId);
+            if (Objects.equals(previous, next)) {
+                return;
+            }
+            if (previous != null) {
+                add(previous, -1);
+                buckets[previous].remove(studentId);
+                best.remove(studentId);
+            }
+            if (next != null) {
+                add(next, 1);
+                buckets[next].add(studentId);
+                best.put(studentId, next);
+            }
+        }
+
+        private void add(int score, int delta) {
+            for (int i = score + 1; i < tree.length; i += i & -i) {
+                tree[i] += delta;
+            }
+        }
+
+        /** Number of students whose best score is at most {@code score}. */
+        private int prefix(int score) {
+            int sum = 0;
+            for (int i = score + 1; i > 0; i -= i & -i) {
+                sum += tree[i];
+            }
+            return sum;
+        }
+    }
+}
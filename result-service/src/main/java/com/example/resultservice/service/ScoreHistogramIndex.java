@@ -0,0 +1,143 @@
+package com.example.resultservice.service;
+
+import com.example.resultservice.domain.AttemptEvent;
+import org.springframework.stereotype.Component;
+
+import java.nio.ByteBuffer;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Per-quiz histogram of every attempt's score, one bucket per possible score (0-100). Count, sum
+ * and sum of squares are kept alongside, so mean, standard deviation, percentiles and the full
+ * distribution are all answered in constant time regardless of how many attempts a quiz has.
+ */
+@Component
+public class ScoreHistogramIndex implements AttemptIndex {
+    static final int BUCKETS = QuizRankIndex.MAX_SCORE + 1;
+
+    private final ConcurrentHashMap<Long, Histogram> quizzes = new ConcurrentHashMap<>();
+
+    @Override
+    public void record(AttemptEvent event) {
+        int score = Math.max(0, Math.min(QuizRankIndex.MAX_SCORE, event.score()));
+        Histogram histogram = quizzes.computeIfAbsent(event.quizId(), id -> new Histogram());
+        synchronized (histogram) {
+            histogram.counts[score]++;
+            histogram.count++;
+            histogram.sum += score;
+            histogram.sumOfSquares += (long) score * score;
+        }
+    }
+
+    @Override
+    public void remove(AttemptEvent event) {
+        int score = Math.max(0, Math.min(QuizRankIndex.MAX_SCORE, event.score()));
+        Histogram histogram = quizzes.get(event.quizId());
+        if (histogram == null) {
+            return;
+        }
+        synchronized (histogram) {
+            if (histogram.counts[score] == 0) {
+                return;
+            }
+            histogram.counts[score]--;
+            histogram.count--;
+            histogram.sum -= score;
+            histogram.sumOfSquares -= (long) score * score;
+        }
+    }
+
+    /** Attempt count, mean, best, standard deviation and median/p90/p99 for the quiz. */
+    public Map<String, Object> summary(Long quizId) {
+        Histogram snapshot = snapshot(quizId);
+        Map<String, Object> result = new HashMap<>();
+        result.put("quizId", quizId);
+        result.put("attempts", snapshot.count);
+        if (snapshot.count == 0) {
+            result.put("avgScore", 0);
+            result.put("bestScore", 0);
+            return result;
+        }
+        double mean = (double) snapshot.sum / snapshot.count;
+        result.put("avgScore", mean);
+        result.put("bestScore", snapshot.highest());
+        result.put("lowestScore", snapshot.lowest());
+        // Population variance from the running sums; clamped since rounding can dip just below zero
+        result.put("stdDev", Math.sqrt(Math.max(0, (double) snapshot.sumOfSquares / snapshot.count - mean * mean)));
+        result.put("median", snapshot.percentile(50));
+        result.put("p90", snapshot.percentile(90));
+        result.put("p99", snapshot.percentile(99));
+        return result;
+    }
+
+    /** The summary plus the attempt count for every score from 0 to 100. */
+    public Map<String, Object> distribution(Long quizId) {
+        Map<String, Object> result = summary(quizId);
+        result.put("buckets", snapshot(quizId).counts);
+        return result;
+    }
+
+    /**
+     * The distribution as {@value #BUCKETS} big-endian 32-bit counts, bucket {@code i} holding the
+     * number of attempts that scored {@code i}.
+     */
+    public byte[] encodedDistribution(Long quizId) {
+        long[] counts = snapshot(quizId).counts;
+        ByteBuffer buffer = ByteBuffer.allocate(BUCKETS * Integer.BYTES);
+        for (long count : counts) {
+            buffer.putInt((int) Math.min(count, Integer.MAX_VALUE));
+        }
+        return buffer.array();
+    }
+
+    private Histogram snapshot(Long quizId) {
+        Histogram histogram = quizzes.get(quizId);
+        Histogram copy = new Histogram();
+        if (histogram == null) {
+            return copy;
+        }
+        synchronized (histogram) {
+            System.arraycopy(histogram.counts, 0, copy.counts, 0, BUCKETS);
+            copy.count = histogram.count;
+            copy.sum = histogram.sum;
+            copy.sumOfSquares = histogram.sumOfSquares;
+        }
+        return copy;
+    }
+
+    private static final class Histogram {
+        private final long[] counts = new long[BUCKETS];
+        private long count;
+        private long sum;
+        private long sumOfSquares;
+
+        /** Nearest-rank percentile: the lowest score that at least {@code p}% of attempts are at or below. */
+        private int percentile(int p) {
+            long rank = Math.max(1, (count * p + 99) / 100);
+            long seen = 0;
+            for (int score = 0; score < BUCKETS; score++) {
+                seen += counts[score];
+                if (seen >= rank) {
+                    return score;
+                }
+            }
+            return BUCKETS - 1;
+        }
+
+        private int highest() {
+            for (int score = BUCKETS - 1; score > 0; score--) {
+                if (counts[score] > 0) return score;
+            }
+            return 0;
+        }
+
+        private int lowest() {
+            for (int score = 0; score < BUCKETS - 1; score++) {
+                if (counts[score] > 0) return score;
+            }
+            return BUCKETS - 1;
+        }
+    }
+}
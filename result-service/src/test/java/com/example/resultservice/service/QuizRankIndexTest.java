@@ -0,0 +1,129 @@
+package com.example.resultservice.service;
+
+import com.example.resultservice.domain.AttemptEvent;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class QuizRankIndexTest {
+    private static final long QUIZ = 1L;
+
+    private final QuizRankIndex index = new QuizRankIndex();
+
+    @Test
+    void ranksStudentsByBestScoreWithTies() {
+        index.record(attempt(1, 10L, 60));
+        index.record(attempt(2, 10L, 90));
+        index.record(attempt(3, 20L, 90));
+        index.record(attempt(4, 30L, 40));
+
+        Map<String, Object> first = index.rank(QUIZ, 10L).orElseThrow();
+        assertEquals(90, first.get("bestScore"));
+        assertEquals(1, first.get("rank"));
+        assertEquals(3, first.get("participants"));
+        // One below, two tied: (1 + 0.5 * 2) / 3
+        assertEquals(200.0 / 3, (double) first.get("percentile"), 1e-9);
+
+        Map<String, Object> last = index.rank(QUIZ, 30L).orElseThrow();
+        assertEquals(3, last.get("rank"));
+        assertEquals(0.5 * 100.0 / 3, (double) last.get("percentile"), 1e-9);
+    }
+
+    @Test
+    void unknownQuizOrStudentHasNoRank() {
+        index.record(attempt(1, 10L, 50));
+
+        assertTrue(index.rank(2L, 10L).isEmpty());
+        assertTrue(index.rank(QUIZ, 99L).isEmpty());
+    }
+
+    @Test
+    void scoresAreClampedToTheTreeRange() {
+        index.record(attempt(1, 10L, 150));
+        index.record(attempt(2, 20L, -5));
+
+        assertEquals(QuizRankIndex.MAX_SCORE, index.rank(QUIZ, 10L).orElseThrow().get("bestScore"));
+        assertEquals(0, index.rank(QUIZ, 20L).orElseThrow().get("bestScore"));
+    }
+
+    @Test
+    void leaderboardListsTopStudentsSharingRanks() {
+        index.record(attempt(1, 10L, 80));
+        index.record(attempt(2, 20L, 95));
+        index.record(attempt(3, 30L, 80));
+        index.record(attempt(4, 40L, 10));
+
+        List<Map<String, Object>> top = index.leaderboard(QUIZ, 3);
+
+        assertEquals(3, top.size());
+        assertEquals(20L, top.get(0).get("studentId"));
+        assertEquals(1, top.get(0).get("rank"));
+        assertEquals("Student 20", top.get(0).get("name"));
+        assertEquals(2, top.get(1).get("rank"));
+        assertEquals(2, top.get(2).get("rank"));
+        assertEquals(80, top.get(2).get("bestScore"));
+    }
+
+    @Test
+    void removingBestAttemptFallsBackToNextBest() {
+        index.record(attempt(1, 10L, 70));
+        index.record(attempt(2, 10L, 95));
+        index.record(attempt(3, 20L, 80));
+
+        index.remove(deletion(2, 10L, 95));
+
+        Map<String, Object> rank = index.rank(QUIZ, 10L).orElseThrow();
+        assertEquals(70, rank.get("bestScore"));
+        assertEquals(2, rank.get("rank"));
+        assertEquals(2, rank.get("participants"));
+    }
+
+    @Test
+    void removingOneOfDuplicateScoresKeepsTheOther() {
+        index.record(attempt(1, 10L, 90));
+        index.record(attempt(2, 10L, 90));
+
+        index.remove(deletion(1, 10L, 90));
+
+        assertEquals(90, index.rank(QUIZ, 10L).orElseThrow().get("bestScore"));
+    }
+
+    @Test
+    void removingLastAttemptDropsStudent() {
+        index.record(attempt(1, 10L, 90));
+        index.record(attempt(2, 20L, 50));
+
+        index.remove(deletion(1, 10L, 90));
+
+        assertTrue(index.rank(QUIZ, 10L).isEmpty());
+        Map<String, Object> remaining = index.rank(QUIZ, 20L).orElseThrow();
+        assertEquals(1, remaining.get("rank"));
+        assertEquals(1, remaining.get("participants"));
+        assertEquals(1, index.leaderboard(QUIZ, 10).size());
+    }
+
+    @Test
+    void rankMatchesBruteForceOverAllScores() {
+        for (int student = 0; student <= 100; student++) {
+            index.record(attempt(student, (long) student, student));
+        }
+        for (int student = 0; student <= 100; student++) {
+            Map<String, Object> rank = index.rank(QUIZ, (long) student).orElseThrow();
+            assertEquals(101 - student, rank.get("rank"));
+            assertEquals((student + 0.5) * 100.0 / 101, (double) rank.get("percentile"), 1e-9);
+        }
+    }
+
+    private static AttemptEvent attempt(long id, Long studentId, int score) {
+        return new AttemptEvent(id, studentId, "Student " + studentId, QUIZ, score, Instant.now(), false);
+    }
+
+    private static AttemptEvent deletion(long id, Long studentId, int score) {
+        return new AttemptEvent(id, studentId, "Student " + studentId, QUIZ, score, Instant.now(), true);
+    }
+}